@@ -14,10 +14,27 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Comma-separated API hosts that inflate gzip request bodies without sending
+        // "Accept-Encoding: gzip" themselves (see RequestCompression); empty sends bodies as-is
+        buildConfigField("String", "GZIP_REQUEST_HOSTS", "\"\"")
     }
 
     buildTypes {
+        debug {
+            // Full (size-capped) HTTP logging while developing
+            buildConfigField("String", "HTTP_LOG_LEVEL", "\"BODY\"")
+            buildConfigField("long", "HTTP_LOG_BODY_MAX_BYTES", "4096L")
+            // Keep responses as JSON so they stay readable in the HTTP log
+            buildConfigField("boolean", "NEGOTIATE_CBOR", "false")
+        }
         release {
+            // Never log or buffer request/response bodies in release builds
+            buildConfigField("String", "HTTP_LOG_LEVEL", "\"NONE\"")
+            buildConfigField("long", "HTTP_LOG_BODY_MAX_BYTES", "0L")
+            // Off until the backend serves CBOR and a release build has been checked against it;
+            // WireFormatTest covers the client side. Servers that only speak JSON ignore it anyway.
+            buildConfigField("boolean", "NEGOTIATE_CBOR", "false")
             isMinifyEnabled = false
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
@@ -32,17 +49,22 @@ android {
     buildFeatures {
         buildConfig = true
     }
+    testOptions {
+        // JVM tests run classes that log; android.util.Log calls return defaults instead of throwing
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
-    // OkHttp for HTTP logging (helps debug connection issues)
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
-    implementation("com.squareup.okhttp3:logging-interceptor:4.12.0")
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation("androidx.core:core:1.12.0")
+    implementation("androidx.lifecycle:lifecycle-livedata:2.6.1")
+    // Background delivery of queued tickets (TicketOutboxWorker)
+    implementation("androidx.work:work-runtime:2.9.1")
     implementation("androidx.constraintlayout:constraintlayout:2.2.0")
     implementation("androidx.coordinatorlayout:coordinatorlayout:1.2.0")
     implementation(libs.mediarouter)
@@ -50,6 +72,7 @@ dependencies {
     implementation(libs.activity)
     implementation(libs.gridlayout)
     testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package app.hub.api;
+
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Times {@link ModelTypeAdapters} against reflective Gson on the device, since ART is where
+ * the reflection cost lives. Run with
+ * {@code ./gradlew connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=app.hub.api.ModelParsingBenchmark}
+ * on a release-like device; medians are reported as instrumentation status and in logcat
+ * under "ModelParsingBenchmark".
+ *
+ * cold: a fresh Gson parsing its first tickets page, i.e. building adapters for the models.
+ * bulk: parsing one response with 5000 tickets once both Gson instances are warm.
+ * Nothing is asserted beyond the parse itself; timings on shared devices are too noisy to gate on.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ModelParsingBenchmark {
+    private static final String TAG = "ModelParsingBenchmark";
+    private static final int TICKETS = 5000;
+    private static final int COLD_RUNS = 20;
+    private static final int WARMUP_RUNS = 10;
+    private static final int BULK_RUNS = 15;
+
+    @Test
+    public void coldFirstCall() {
+        String page = ticketsJson(50);
+        long[] factory = new long[COLD_RUNS];
+        long[] reflective = new long[COLD_RUNS];
+        for (int i = 0; i < COLD_RUNS; i++) {
+            // Alternate so neither side always runs on a warmer heap
+            factory[i] = timeFirstCall(factoryGson(), page);
+            reflective[i] = timeFirstCall(new GsonBuilder().setLenient().create(), page);
+        }
+        report("cold", median(factory), median(reflective));
+    }
+
+    @Test
+    public void parse5000Tickets() {
+        String json = ticketsJson(TICKETS);
+        Gson factoryGson = factoryGson();
+        Gson reflectiveGson = new GsonBuilder().setLenient().create();
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            parse(factoryGson, json);
+            parse(reflectiveGson, json);
+        }
+        long[] factory = new long[BULK_RUNS];
+        long[] reflective = new long[BULK_RUNS];
+        for (int i = 0; i < BULK_RUNS; i++) {
+            factory[i] = timeParse(factoryGson, json);
+            reflective[i] = timeParse(reflectiveGson, json);
+        }
+        report("bulk", median(factory), median(reflective));
+    }
+
+    private static Gson factoryGson() {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapters())
+                .setLenient()
+                .create();
+    }
+
+    private static long timeFirstCall(Gson gson, String json) {
+        long start = SystemClock.elapsedRealtimeNanos();
+        parse(gson, json);
+        return (SystemClock.elapsedRealtimeNanos() - start) / 1000;
+    }
+
+    private static long timeParse(Gson gson, String json) {
+        long start = SystemClock.elapsedRealtimeNanos();
+        TicketsResponse response = parse(gson, json);
+        long micros = (SystemClock.elapsedRealtimeNanos() - start) / 1000;
+        assertEquals(TICKETS, response.getData().getTickets().size());
+        return micros;
+    }
+
+    private static TicketsResponse parse(Gson gson, String json) {
+        return gson.fromJson(json, TicketsResponse.class);
+    }
+
+    private static long median(long[] micros) {
+        long[] sorted = micros.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static void report(String name, long factoryMicros, long reflectiveMicros) {
+        String line = name + ": factory " + factoryMicros + "us, reflective " + reflectiveMicros + "us";
+        Log.i(TAG, line);
+        Bundle status = new Bundle();
+        status.putLong(name + "_factory_us", factoryMicros);
+        status.putLong(name + "_reflective_us", reflectiveMicros);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+    }
+
+    /**
+     * A /api/tickets response shaped like the Laravel one, including fields the app ignores.
+     */
+    static String ticketsJson(int count) {
+        StringBuilder json = new StringBuilder(count * 600);
+        json.append("{\"success\":true,\"message\":null,\"data\":{\"tickets\":[");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"ticket_number\":\"TCK-").append(100000 + i).append('"')
+                    .append(",\"title\":\"Air conditioner not cooling in unit ").append(i).append('"')
+                    .append(",\"description\":\"The unit turns on but only blows warm air since yesterday. ")
+                    .append("Filter was cleaned last month.\"")
+                    .append(",\"priority\":\"").append(i % 3 == 0 ? "high" : "normal").append('"')
+                    .append(",\"status\":{\"id\":").append(i % 4 + 1)
+                    .append(",\"name\":\"Open\",\"color\":\"#2E7D32\",\"is_final\":0}")
+                    .append(",\"customer\":{\"id\":").append(i % 97)
+                    .append(",\"name\":\"Customer ").append(i % 97)
+                    .append("\",\"email\":\"customer").append(i % 97).append("@example.com\"}")
+                    .append(",\"assigned_staff\":").append(i % 5 == 0 ? "null" : "{\"id\":7,\"name\":\"Staff\",\"email\":\"staff@example.com\"}")
+                    .append(",\"comments_count\":\"").append(i % 11).append('"')
+                    .append(",\"attachments\":[]")
+                    .append(",\"created_at\":\"2024-05-01T08:00:00.000000Z\"")
+                    .append(",\"updated_at\":\"2024-05-02T09:30:00.000000Z\"}");
+        }
+        json.append("],\"deleted_ids\":[],\"meta\":{\"current_page\":1,\"last_page\":1,\"total\":")
+                .append(count).append(",\"per_page\":").append(count).append("}}}");
+        return json.toString();
+    }
+}
@@ -13,6 +13,7 @@ import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.ImageButton;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
@@ -24,24 +25,29 @@ import com.google.android.material.bottomsheet.BottomSheetDialog;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.servicehub.adapter.ChatAdapter;
-import com.servicehub.model.ChatRequest;
-import com.servicehub.model.ChatResponse;
 import com.servicehub.model.Message;
 import app.hub.api.ApiClient;
 import app.hub.api.ApiService;
-import java.io.IOException;
+import app.hub.api.ChatStream;
+import app.hub.data.ChatHistory;
+import app.hub.data.FaqMatcher;
 import java.util.ArrayList;
 import java.util.List;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class DashboardActivity extends AppCompatActivity {
 
     public static final String EXTRA_EMAIL = "email";
     private static final String TAG = "DashboardActivity";
 
+    // Older chat messages are loaded when the list is scrolled this close to the top
+    private static final int HISTORY_PREFETCH = 5;
+
     private ApiService apiService;
+    private ChatHistory chatHistory;
+    private FaqMatcher faqMatcher;
+    // Reply currently streaming into the chat dialog, if any, and what of it is shown so far
+    private ChatStream chatStream;
+    private String streamedText;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -49,6 +55,9 @@ public class DashboardActivity extends AppCompatActivity {
         setContentView(R.layout.activity_dashboard);
 
         apiService = ApiClient.getApiService();
+        chatHistory = ChatHistory.getInstance(this);
+        // Starts indexing the bundled FAQ so it is ready by the time the chat opens
+        faqMatcher = FaqMatcher.getInstance(this);
 
         FloatingActionButton fab = findViewById(R.id.fab_chatbot);
         setupFab(fab);
@@ -179,13 +188,24 @@ public class DashboardActivity extends AppCompatActivity {
         ImageButton sendButton = dialogView.findViewById(R.id.sendButton);
 
         List<Message> messageList = new ArrayList<>();
-        ChatAdapter chatAdapter = new ChatAdapter(messageList);
+        ChatAdapter chatAdapter = new ChatAdapter();
+        HistoryCursor history = new HistoryCursor();
 
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        // Newest at the bottom, older pages are added above
+        layoutManager.setStackFromEnd(true);
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(chatAdapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+                if (dy < 0 && layoutManager.findFirstVisibleItemPosition() <= HISTORY_PREFETCH) {
+                    loadOlderMessages(history, messageList, chatAdapter, recyclerView);
+                }
+            }
+        });
 
-        messageList.add(new Message("Hello! How can I help you today?", false));
-        chatAdapter.notifyItemInserted(messageList.size() - 1);
+        loadOlderMessages(history, messageList, chatAdapter, recyclerView);
 
         sendButton.setOnClickListener(v -> {
             if (messageEditText.getText() != null) {
@@ -197,50 +217,127 @@ public class DashboardActivity extends AppCompatActivity {
             }
         });
 
-        builder.create().show();
+        AlertDialog dialog = builder.create();
+        // Closing the chat stops a reply that is still streaming
+        dialog.setOnDismissListener(d -> cancelChatStream());
+        dialog.show();
+    }
+
+    // Where the chat dialog is in the stored history
+    private static class HistoryCursor {
+        long oldestRowId = Long.MAX_VALUE;
+        boolean hasMore = true;
+        boolean loading;
+    }
+
+    private void loadOlderMessages(HistoryCursor history, List<Message> messageList, ChatAdapter chatAdapter, RecyclerView recyclerView) {
+        if (history.loading || !history.hasMore) {
+            return;
+        }
+        boolean first = history.oldestRowId == Long.MAX_VALUE;
+        history.loading = true;
+        chatHistory.loadOlder(history.oldestRowId, (page, oldestRowId, hasMore) -> {
+            history.loading = false;
+            history.oldestRowId = oldestRowId;
+            history.hasMore = hasMore;
+            if (first && page.isEmpty()) {
+                // Not stored, so it does not pile up in the history
+                showMessage(new Message("Hello! How can I help you today?", false), messageList, chatAdapter, recyclerView);
+                return;
+            }
+            messageList.addAll(0, page);
+            if (first) {
+                int last = messageList.size() - 1;
+                chatAdapter.submitList(new ArrayList<>(messageList), () -> recyclerView.scrollToPosition(last));
+            } else {
+                chatAdapter.submitList(new ArrayList<>(messageList));
+            }
+        });
     }
 
     private void sendMessage(String messageText, List<Message> messageList, ChatAdapter chatAdapter, RecyclerView recyclerView) {
-        messageList.add(new Message(messageText, true));
-        chatAdapter.notifyItemInserted(messageList.size() - 1);
-        recyclerView.scrollToPosition(messageList.size() - 1);
+        // A new question ends the previous answer where it is
+        cancelChatStream();
+        Message question = new Message(messageText, true);
+        chatHistory.add(question);
+        showMessage(question, messageList, chatAdapter, recyclerView);
+
+        // Common questions are answered from the bundled FAQ without a round trip
+        long matchStart = System.nanoTime();
+        FaqMatcher.Answer local = faqMatcher.match(messageText);
+        if (local != null) {
+            Log.d(TAG, "Answered from FAQ " + local.getId() + " (coverage " + local.getConfidence() + ") in "
+                    + (System.nanoTime() - matchStart) / 1000 + " us");
+            Message reply = new Message(local.getText(), false);
+            chatHistory.add(reply);
+            showMessage(reply, messageList, chatAdapter, recyclerView);
+            return;
+        }
 
-        Call<ChatResponse> call = apiService.sendMessage(new ChatRequest(messageText));
-        call.enqueue(new Callback<ChatResponse>() {
+        // The AI bubble appears right away and fills in as tokens arrive
+        long replyId = Message.nextId();
+        showMessage(new Message(replyId, "…", false), messageList, chatAdapter, recyclerView);
+
+        chatStream = ChatStream.start(apiService, messageText, new ChatStream.Listener() {
             @Override
-            public void onResponse(@NonNull Call<ChatResponse> call, @NonNull Response<ChatResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    String reply = response.body().getReply();
-                    messageList.add(new Message(reply, false));
-                } else {
-                    handleApiError(response, messageList);
-                }
-                chatAdapter.notifyItemInserted(messageList.size() - 1);
-                recyclerView.scrollToPosition(messageList.size() - 1);
+            public void onText(String text) {
+                streamedText = text;
+                updateMessage(new Message(replyId, text, false), messageList, chatAdapter);
             }
 
             @Override
-            public void onFailure(@NonNull Call<ChatResponse> call, @NonNull Throwable t) {
-                Log.e(TAG, "API Failure: ", t);
-                messageList.add(new Message("Failed to connect to the server.", false));
-                chatAdapter.notifyItemInserted(messageList.size() - 1);
-                recyclerView.scrollToPosition(messageList.size() - 1);
+            public void onComplete(String text) {
+                chatStream = null;
+                streamedText = null;
+                chatHistory.add(new Message(text, false));
+                updateMessage(new Message(replyId, text.isEmpty() ? "No reply." : text, false), messageList, chatAdapter);
+            }
+
+            @Override
+            public void onError(int code, @Nullable Throwable error) {
+                chatStream = null;
+                streamedText = null;
+                String text = code > 0 ? "Error: " + code : "Failed to connect to the server.";
+                updateMessage(new Message(replyId, text, false), messageList, chatAdapter);
             }
         });
     }
 
-    private void handleApiError(Response<ChatResponse> response, List<Message> messageList) {
-        String errorBody = "No error body";
-        try (okhttp3.ResponseBody errorResponseBody = response.errorBody()) {
-            if (errorResponseBody != null) {
-                errorBody = errorResponseBody.string();
+    @Override
+    protected void onDestroy() {
+        // A streamed reply has no read timeout, so it must not outlive the screen
+        cancelChatStream();
+        super.onDestroy();
+    }
+
+    private void cancelChatStream() {
+        if (chatStream != null) {
+            chatStream.cancel();
+            chatStream = null;
+            if (streamedText != null) {
+                // Keep the part of the answer that was already on screen
+                chatHistory.add(new Message(streamedText, false));
+                streamedText = null;
+            }
+        }
+    }
+
+    // ChatAdapter diffs against the list it already has, so it always gets a fresh copy
+    private void showMessage(Message message, List<Message> messageList, ChatAdapter chatAdapter, RecyclerView recyclerView) {
+        messageList.add(message);
+        int last = messageList.size() - 1;
+        chatAdapter.submitList(new ArrayList<>(messageList), () -> recyclerView.scrollToPosition(last));
+    }
+
+    // Replaces the message with the same id; only that bubble is rebound
+    private void updateMessage(Message message, List<Message> messageList, ChatAdapter chatAdapter) {
+        for (int i = messageList.size() - 1; i >= 0; i--) {
+            if (messageList.get(i).getId() == message.getId()) {
+                messageList.set(i, message);
+                chatAdapter.submitList(new ArrayList<>(messageList));
+                return;
             }
-        } catch (IOException e) {
-            Log.e(TAG, "Error parsing error body", e);
-            errorBody = "Error reading response";
         }
-        Log.e(TAG, "API Error: " + response.code() + " " + errorBody);
-        messageList.add(new Message("Error: " + response.code(), false));
     }
 
     @Override
@@ -0,0 +1,14 @@
+package app.hub;
+
+import android.app.Application;
+
+import app.hub.api.ApiClient;
+
+public class HubApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        ApiClient.init(this);
+    }
+}
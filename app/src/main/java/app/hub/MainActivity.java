@@ -42,16 +42,17 @@ public class MainActivity extends AppCompatActivity {
 
         tokenManager = new TokenManager(this);
 
-        // Check if already logged in
-        if (tokenManager.isLoggedIn()) {
+        // Check if already logged in (one snapshot read instead of several prefs lookups)
+        TokenManager.Session session = tokenManager.getSession();
+        if (session.getToken() != null) {
             final Intent intent;
-            if ("admin".equals(tokenManager.getRole())) {
+            if ("admin".equals(session.getRole())) {
                 intent = new Intent(this, admin_DashboardActivity.class);
-            } else if ("employee".equals(tokenManager.getRole())) {
+            } else if ("employee".equals(session.getRole())) {
                 intent = new Intent(this, employee_DashboardActivity.class);
             } else {
                 intent = new Intent(this, DashboardActivity.class);
-                intent.putExtra(DashboardActivity.EXTRA_EMAIL, tokenManager.getEmail());
+                intent.putExtra(DashboardActivity.EXTRA_EMAIL, session.getEmail());
             }
             startActivity(intent);
             finish();
@@ -146,12 +147,8 @@ public class MainActivity extends AppCompatActivity {
 				if (response.isSuccessful() && response.body() != null) {
 					LoginResponse loginResponse = response.body();
 					if (loginResponse.isSuccess() && loginResponse.getData() != null) {
-						// Save token and user data
 						LoginResponse.User user = loginResponse.getData().getUser();
-						tokenManager.saveToken("Bearer " + loginResponse.getData().getToken());
-						tokenManager.saveEmail(user.getEmail());
-                        tokenManager.saveRole(user.getRole());
-						
+
 						// Get name - prefer name field, fallback to firstName + lastName
 						String userName = user.getName();
 						if (userName == null || userName.trim().isEmpty()) {
@@ -175,9 +172,12 @@ public class MainActivity extends AppCompatActivity {
 							userName = userName.trim();
 						}
 						
-						if (userName != null && !userName.isEmpty()) {
-							tokenManager.saveName(userName);
-						}
+						// Save token and user data in a single write
+						tokenManager.saveSession(new TokenManager.Session(
+								"Bearer " + loginResponse.getData().getToken(),
+								user.getEmail(),
+								userName.isEmpty() ? null : userName,
+								user.getRole()));
 
 						// Navigate to dashboard
 						runOnUiThread(() -> {
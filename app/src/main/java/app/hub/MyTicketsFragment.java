@@ -8,24 +8,21 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import java.util.ArrayList;
-import java.util.List;
-import app.hub.api.ApiClient;
-import app.hub.api.ApiService;
-import app.hub.util.TokenManager;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import app.hub.api.CircuitBreaker;
+import app.hub.data.TicketPager;
+import app.hub.data.TicketRepository;
+import app.hub.util.OfflineNotice;
 
 public class MyTicketsFragment extends Fragment {
 
     private RecyclerView ticketsRecyclerView;
     private TextView noTicketsTextView;
     private TicketAdapter ticketAdapter;
-    private List<Ticket> ticketList = new ArrayList<>();
-    private TokenManager tokenManager;
+    private TicketPager ticketPager;
+    private TicketRepository ticketRepository;
 
     @Nullable
     @Override
@@ -34,32 +31,58 @@ public class MyTicketsFragment extends Fragment {
 
         ticketsRecyclerView = view.findViewById(R.id.ticketsRecyclerView);
         noTicketsTextView = view.findViewById(R.id.noTicketsTextView);
-        tokenManager = new TokenManager(getContext());
+        ticketRepository = TicketRepository.getInstance(requireContext());
 
         setupRecyclerView();
-        loadTickets();
 
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // Fires once right away (first load from disk) and again for every page a sync stores
+        ticketRepository.getChanges().observe(getViewLifecycleOwner(), version -> ticketPager.invalidate());
+        // The stored list stays usable while the ticket endpoints are failing fast
+        OfflineNotice.observe(this, CircuitBreaker.GROUP_TICKETS, R.string.tickets_offline);
+    }
+
+    @Override
+    public void onDestroyView() {
+        ticketPager.release();
+        super.onDestroyView();
+    }
+
     private void setupRecyclerView() {
-        ticketAdapter = new TicketAdapter(ticketList);
+        ticketPager = ticketRepository.newPager(TicketRepository.Scope.MINE);
+        ticketAdapter = new TicketAdapter(ticketPager);
+        ticketPager.setListener(new TicketPager.Listener() {
+            @Override
+            public void onChanged(DiffUtil.DiffResult diff, int size) {
+                // Only the rows that changed are rebound
+                diff.dispatchUpdatesTo(ticketAdapter);
+                showEmptyState(size == 0);
+            }
+
+            @Override
+            public void onRangeLoaded(int start, int count) {
+                ticketAdapter.notifyItemRangeChanged(start, count);
+            }
+        });
+        ticketsRecyclerView.setHasFixedSize(true);
         ticketsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         ticketsRecyclerView.setAdapter(ticketAdapter);
     }
 
-    private void loadTickets() {
-        // This is where you would make an API call to get the tickets.
-        // For now, let's use the same sample data.
-        ticketList.add(new Ticket("Fix the printer", "The printer in the main office is jammed.", "Pending"));
+    @Override
+    public void onResume() {
+        super.onResume();
+        // Pulls only what changed since the last sync; the stored list is already on screen
+        ticketRepository.refresh(TicketRepository.Scope.MINE);
+    }
 
-        if (ticketList.isEmpty()) {
-            noTicketsTextView.setVisibility(View.VISIBLE);
-            ticketsRecyclerView.setVisibility(View.GONE);
-        } else {
-            noTicketsTextView.setVisibility(View.GONE);
-            ticketsRecyclerView.setVisibility(View.VISIBLE);
-            ticketAdapter.notifyDataSetChanged();
-        }
+    private void showEmptyState(boolean empty) {
+        noTicketsTextView.setVisibility(empty ? View.VISIBLE : View.GONE);
+        ticketsRecyclerView.setVisibility(empty ? View.GONE : View.VISIBLE);
     }
 }
@@ -0,0 +1,89 @@
+package app.hub;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.util.Locale;
+import java.util.Map;
+
+import app.hub.api.Histogram;
+import app.hub.api.NetworkMetrics;
+import app.hub.util.DateUtils;
+
+/**
+ * Diagnostics screen listing p50/p95/p99 per endpoint from {@link NetworkMetrics}. Opened by
+ * long-pressing the profile picture, in release builds too, so field numbers can be collected
+ * from real devices. Export shares the JSON dump. Nothing here identifies the user: endpoints
+ * are service method names, and only timings, sizes and status codes are kept.
+ */
+public class NetworkMetricsActivity extends AppCompatActivity {
+
+    private TextView metricsTextView;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_network_metrics);
+        setTitle("Network metrics");
+
+        metricsTextView = findViewById(R.id.metricsTextView);
+        Button refreshButton = findViewById(R.id.refreshButton);
+        Button resetButton = findViewById(R.id.resetButton);
+        Button exportButton = findViewById(R.id.exportButton);
+
+        refreshButton.setOnClickListener(v -> showReport());
+        resetButton.setOnClickListener(v -> {
+            NetworkMetrics.getInstance().reset();
+            showReport();
+        });
+        exportButton.setOnClickListener(v -> export());
+
+        showReport();
+    }
+
+    private void showReport() {
+        NetworkMetrics metrics = NetworkMetrics.getInstance();
+        StringBuilder report = new StringBuilder();
+        report.append("Since ").append(DateUtils.formatIsoMillis(metrics.getSinceMillis())).append("\n");
+        report.append("Times in ms: p50 / p95 / p99 (max), n\n\n");
+        Map<String, NetworkMetrics.Endpoint> endpoints = metrics.getEndpoints();
+        if (endpoints.isEmpty()) {
+            report.append("No calls recorded yet.");
+        }
+        for (Map.Entry<String, NetworkMetrics.Endpoint> entry : endpoints.entrySet()) {
+            NetworkMetrics.Endpoint endpoint = entry.getValue();
+            report.append(entry.getKey()).append("\n");
+            report.append(String.format(Locale.US, "  calls %d, failed %d, status %s\n",
+                    endpoint.getCalls(), endpoint.getFailures(), endpoint.getStatuses()));
+            report.append(String.format(Locale.US, "  sent %d B, received %d B\n",
+                    endpoint.getRequestBytes(), endpoint.getResponseBytes()));
+            for (Map.Entry<String, Histogram> phase : endpoint.phases().entrySet()) {
+                Histogram histogram = phase.getValue();
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+                report.append(String.format(Locale.US, "  %-8s %8.1f / %8.1f / %8.1f (%.1f), %d\n",
+                        phase.getKey(),
+                        histogram.getPercentile(50) / 1000.0,
+                        histogram.getPercentile(95) / 1000.0,
+                        histogram.getPercentile(99) / 1000.0,
+                        histogram.getMax() / 1000.0,
+                        histogram.getCount()));
+            }
+            report.append("\n");
+        }
+        metricsTextView.setText(report);
+    }
+
+    private void export() {
+        Intent send = new Intent(Intent.ACTION_SEND);
+        send.setType("application/json");
+        send.putExtra(Intent.EXTRA_SUBJECT, "Network metrics");
+        send.putExtra(Intent.EXTRA_TEXT, NetworkMetrics.getInstance().toJson());
+        startActivity(Intent.createChooser(send, "Export network metrics"));
+    }
+}
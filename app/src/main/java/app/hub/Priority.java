@@ -0,0 +1,36 @@
+package app.hub;
+
+/**
+ * Ticket priority as sent by the API ("low", "medium", "high", "urgent").
+ * Declared from lowest to highest, so ordinal order is priority order.
+ */
+public enum Priority {
+    LOW("low"),
+    MEDIUM("medium"),
+    HIGH("high"),
+    URGENT("urgent");
+
+    private final String apiValue;
+
+    Priority(String apiValue) {
+        this.apiValue = apiValue;
+    }
+
+    public String getApiValue() {
+        return apiValue;
+    }
+
+    /**
+     * Unknown or missing values map to MEDIUM, the server's default.
+     */
+    public static Priority fromApi(String value) {
+        if (value != null) {
+            for (Priority priority : values()) {
+                if (priority.apiValue.equalsIgnoreCase(value)) {
+                    return priority;
+                }
+            }
+        }
+        return MEDIUM;
+    }
+}
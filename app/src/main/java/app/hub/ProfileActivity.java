@@ -4,11 +4,11 @@ import app.hub.R;
 import app.hub.api.ApiClient;
 import app.hub.api.ApiService;
 import app.hub.api.LogoutResponse;
-import app.hub.api.UserResponse;
+import app.hub.data.UserRepository;
 import app.hub.util.TokenManager;
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
+import android.view.View;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -31,6 +31,8 @@ public class ProfileActivity extends AppCompatActivity {
 	private TokenManager tokenManager;
 	private String currentName;
 	private String currentEmail;
+	private String argumentEmail;
+	private UserRepository userRepository;
 
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
@@ -50,34 +52,13 @@ public class ProfileActivity extends AppCompatActivity {
 			toolbar.setNavigationOnClickListener(v -> finish());
 		}
 
-		// Get email from intent or token manager
-		String email = getIntent().getStringExtra(EXTRA_EMAIL);
-		if (email == null || email.trim().isEmpty()) {
-			email = tokenManager.getEmail();
-		}
-
-		TextView nameTextView = findViewById(R.id.nameTextView);
-		TextView emailTextView = findViewById(R.id.emailTextView);
-		
-		if (nameTextView != null) {
-			String name = tokenManager.getName();
-			if (name != null && !name.trim().isEmpty()) {
-				nameTextView.setText(name.trim());
-			} else {
-				nameTextView.setText("Loading...");
-			}
-		}
-		
-		if (emailTextView != null) {
-			if (email != null && !email.trim().isEmpty()) {
-				emailTextView.setText(email.trim());
-			} else {
-				emailTextView.setText("Loading...");
-			}
-		}
+		// Email passed in by the caller is shown until the profile has one
+		argumentEmail = getIntent().getStringExtra(EXTRA_EMAIL);
 
-		// Fetch user data from API
-		fetchUserData();
+		// Profile is shared with user_Profile; refresh() skips the network while the snapshot is fresh
+		userRepository = UserRepository.getInstance(this);
+		userRepository.getUser().observe(this, this::showProfile);
+		userRepository.refresh();
 
 		MaterialButton editNameButton = findViewById(R.id.editNameButton);
 		if (editNameButton != null) {
@@ -93,169 +74,42 @@ public class ProfileActivity extends AppCompatActivity {
 		if (logoutButton != null) {
 			logoutButton.setOnClickListener(v -> logout());
 		}
+
+		// Hidden on purpose: per-endpoint network timings, so support can ask for an export
+		View profileImage = findViewById(R.id.profile_image_placeholder);
+		if (profileImage != null) {
+			profileImage.setOnLongClickListener(v -> {
+				startActivity(new Intent(this, NetworkMetricsActivity.class));
+				return true;
+			});
+		}
 	}
 
-	private void fetchUserData() {
-		String token = tokenManager.getToken();
-		if (token == null) {
-			Log.e("ProfileActivity", "No token available, using cached data only");
-			fallbackToCachedData();
-			return;
+	private void showProfile(UserRepository.Profile profile) {
+		if (profile == null) return;
+		TextView nameTextView = findViewById(R.id.nameTextView);
+		TextView emailTextView = findViewById(R.id.emailTextView);
+
+		// A DISK profile means a refresh may still be running, so missing fields show as loading
+		boolean pending = profile.getSource() == UserRepository.Profile.Source.DISK;
+
+		currentName = profile.getName();
+		currentEmail = profile.getEmail();
+		if (currentEmail == null && argumentEmail != null && !argumentEmail.trim().isEmpty()) {
+			currentEmail = argumentEmail.trim();
 		}
 
-		// Log cached data before API call
-		String cachedName = tokenManager.getName();
-		String cachedEmail = tokenManager.getEmail();
-		Log.d("ProfileActivity", "Cached data before API call - Name: " + cachedName + ", Email: " + cachedEmail);
-
-		ApiService apiService = ApiClient.getApiService();
-		Call<UserResponse> call = apiService.getUser(token);
-		call.enqueue(new Callback<UserResponse>() {
-			@Override
-			public void onResponse(Call<UserResponse> call, Response<UserResponse> response) {
-				if (response.isSuccessful() && response.body() != null) {
-					UserResponse userResponse = response.body();
-					Log.d("ProfileActivity", "API Response - Success: " + userResponse.isSuccess());
-					
-					if (userResponse.isSuccess() && userResponse.getData() != null) {
-						UserResponse.Data userData = userResponse.getData();
-						
-						// Log the raw data from API
-						Log.d("ProfileActivity", "API Data - Name: " + userData.getName() + 
-							", FirstName: " + userData.getFirstName() + 
-							", LastName: " + userData.getLastName() + 
-							", Email: " + userData.getEmail());
-						
-						// Get name - prefer name field, fallback to firstName + lastName
-						currentName = userData.getName();
-						if (currentName == null || currentName.trim().isEmpty()) {
-							String firstName = userData.getFirstName();
-							String lastName = userData.getLastName();
-							
-							Log.d("ProfileActivity", "Name field is empty, combining firstName and lastName");
-							
-							// Build name from firstName and lastName
-							StringBuilder nameBuilder = new StringBuilder();
-							if (firstName != null && !firstName.trim().isEmpty()) {
-								nameBuilder.append(firstName.trim());
-							}
-							if (lastName != null && !lastName.trim().isEmpty()) {
-								if (nameBuilder.length() > 0) {
-									nameBuilder.append(" ");
-								}
-								nameBuilder.append(lastName.trim());
-							}
-							
-							currentName = nameBuilder.toString();
-							Log.d("ProfileActivity", "Combined name: " + currentName);
-						} else {
-							currentName = currentName.trim();
-						}
-						
-						currentEmail = userData.getEmail();
-						if (currentEmail != null) {
-							currentEmail = currentEmail.trim();
-						}
-						
-						Log.d("ProfileActivity", "Final values - Name: " + currentName + ", Email: " + currentEmail);
-						
-						// If API returned empty data, fallback to cached data
-						if ((currentName == null || currentName.isEmpty()) && 
-							(currentEmail == null || currentEmail.isEmpty())) {
-							Log.w("ProfileActivity", "API returned empty data, falling back to cached data");
-							fallbackToCachedData();
-							return;
-						}
-						
-						// If name is empty but email exists, try to get name from cache
-						if ((currentName == null || currentName.isEmpty()) && 
-							(currentEmail != null && !currentEmail.isEmpty())) {
-							String cachedName = tokenManager.getName();
-							if (cachedName != null && !cachedName.trim().isEmpty()) {
-								currentName = cachedName.trim();
-								Log.d("ProfileActivity", "Using cached name: " + currentName);
-							}
-						}
-						
-						// If email is empty but name exists, try to get email from cache
-						if ((currentEmail == null || currentEmail.isEmpty()) && 
-							(currentName != null && !currentName.isEmpty())) {
-							String cachedEmail = tokenManager.getEmail();
-							if (cachedEmail != null && !cachedEmail.trim().isEmpty()) {
-								currentEmail = cachedEmail.trim();
-								Log.d("ProfileActivity", "Using cached email: " + currentEmail);
-							}
-						}
-						
-						// Update UI on main thread
-						runOnUiThread(() -> {
-							TextView nameTextView = findViewById(R.id.nameTextView);
-							TextView emailTextView = findViewById(R.id.emailTextView);
-							
-							if (nameTextView != null) {
-								if (currentName != null && !currentName.isEmpty()) {
-									nameTextView.setText(currentName);
-								} else {
-									// Try cached data one more time
-									String cachedName = tokenManager.getName();
-									if (cachedName != null && !cachedName.trim().isEmpty()) {
-										nameTextView.setText(cachedName.trim());
-										currentName = cachedName.trim();
-									} else {
-										nameTextView.setText("No name available");
-									}
-								}
-							}
-							
-							if (emailTextView != null) {
-								if (currentEmail != null && !currentEmail.isEmpty()) {
-									emailTextView.setText(currentEmail);
-								} else {
-									// Try cached data one more time
-									String cachedEmail = tokenManager.getEmail();
-									if (cachedEmail != null && !cachedEmail.trim().isEmpty()) {
-										emailTextView.setText(cachedEmail.trim());
-										currentEmail = cachedEmail.trim();
-									} else {
-										emailTextView.setText("No email available");
-									}
-								}
-							}
-						});
-						
-						// Update token manager with latest data
-						if (currentName != null && !currentName.isEmpty()) {
-							tokenManager.saveName(currentName);
-						}
-						if (currentEmail != null && !currentEmail.isEmpty()) {
-							tokenManager.saveEmail(currentEmail);
-						}
-					} else {
-						// Handle case where response is not successful - fallback to cached data
-						Log.e("ProfileActivity", "API response not successful or data is null");
-						fallbackToCachedData();
-					}
-				} else {
-					// Handle error response - fallback to cached data
-					Log.e("ProfileActivity", "API call not successful. Code: " + response.code());
-					if (response.errorBody() != null) {
-						try {
-							Log.e("ProfileActivity", "Error body: " + response.errorBody().string());
-						} catch (java.io.IOException e) {
-							Log.e("ProfileActivity", "Error reading error body", e);
-						}
-					}
-					fallbackToCachedData();
-				}
-			}
+		if (nameTextView != null) {
+			nameTextView.setText(currentName != null ? currentName : (pending ? "Loading..." : "No name available"));
+		}
+		if (emailTextView != null) {
+			emailTextView.setText(currentEmail != null ? currentEmail : (pending ? "Loading..." : "No email available"));
+		}
 
-			@Override
-			public void onFailure(Call<UserResponse> call, Throwable t) {
-				// Show error but fallback to cached data
-				Log.e("ProfileActivity", "API call failed: " + t.getMessage());
-				fallbackToCachedData();
-			}
-		});
+		// Show a subtle message that we're using cached data, once per failed refresh
+		if (!profile.isComplete() && profile.consumeErrorNotice()) {
+			Toast.makeText(this, "Using cached data. Please check your connection.", Toast.LENGTH_SHORT).show();
+		}
 	}
 
 	private void showEditNameDialog() {
@@ -380,13 +234,8 @@ public class ProfileActivity extends AppCompatActivity {
 
 	private void updateName(String newName) {
 		// TODO: Implement API call to update name
-		// For now, just update locally
-		currentName = newName;
-		TextView nameTextView = findViewById(R.id.nameTextView);
-		if (nameTextView != null) {
-			nameTextView.setText(newName);
-		}
-		tokenManager.saveName(newName);
+		// For now, just update locally; the repository pushes the new name to every observer
+		userRepository.updateName(newName);
 		Toast.makeText(this, "Name updated successfully", Toast.LENGTH_SHORT).show();
 	}
 
@@ -396,10 +245,9 @@ public class ProfileActivity extends AppCompatActivity {
 	}
 
 	private void logout() {
-		String token = tokenManager.getToken();
-		if (token != null) {
+		if (tokenManager.isLoggedIn()) {
 			ApiService apiService = ApiClient.getApiService();
-			Call<LogoutResponse> call = apiService.logout(token);
+			Call<LogoutResponse> call = apiService.logout();
 			call.enqueue(new Callback<LogoutResponse>() {
 				@Override
 				public void onResponse(Call<LogoutResponse> call, Response<LogoutResponse> response) {
@@ -431,42 +279,4 @@ public class ProfileActivity extends AppCompatActivity {
 	private String trim(String str) {
 		return str != null ? str.trim() : "";
 	}
-
-	private void fallbackToCachedData() {
-		// Fallback to cached data from TokenManager if API fails
-		runOnUiThread(() -> {
-			TextView nameTextView = findViewById(R.id.nameTextView);
-			TextView emailTextView = findViewById(R.id.emailTextView);
-			
-			// Get cached data
-			String cachedName = tokenManager.getName();
-			String cachedEmail = tokenManager.getEmail();
-			
-			Log.d("ProfileActivity", "Using cached data - Name: " + cachedName + ", Email: " + cachedEmail);
-			
-			if (nameTextView != null) {
-				if (cachedName != null && !cachedName.trim().isEmpty()) {
-					nameTextView.setText(cachedName.trim());
-					currentName = cachedName.trim();
-				} else {
-					nameTextView.setText("No name available");
-				}
-			}
-			
-			if (emailTextView != null) {
-				if (cachedEmail != null && !cachedEmail.trim().isEmpty()) {
-					emailTextView.setText(cachedEmail.trim());
-					currentEmail = cachedEmail.trim();
-				} else {
-					emailTextView.setText("No email available");
-				}
-			}
-			
-			// Show a subtle message that we're using cached data
-			if (cachedName == null || cachedName.trim().isEmpty() || 
-				cachedEmail == null || cachedEmail.trim().isEmpty()) {
-				Toast.makeText(ProfileActivity.this, "Using cached data. Please check your connection.", Toast.LENGTH_SHORT).show();
-			}
-		});
-	}
 }
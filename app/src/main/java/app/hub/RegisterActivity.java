@@ -593,9 +593,7 @@ public class RegisterActivity extends AppCompatActivity {
 
 		// Save user data
 		RegisterResponse.User user = response.getData().getUser();
-		tokenManager.saveToken("Bearer " + response.getData().getToken());
-		tokenManager.saveEmail(user.getEmail());
-		
+
 		// Build name from firstName and lastName (RegisterResponse.User doesn't have getName())
 		String firstName = user.getFirstName();
 		String lastName = user.getLastName();
@@ -611,9 +609,13 @@ public class RegisterActivity extends AppCompatActivity {
 		}
 		
 		String userName = nameBuilder.toString();
-		if (userName != null && !userName.isEmpty()) {
-			tokenManager.saveName(userName);
-		}
+
+		// Save token and user data in a single write
+		tokenManager.saveSession(new TokenManager.Session(
+				"Bearer " + response.getData().getToken(),
+				user.getEmail(),
+				userName.isEmpty() ? null : userName,
+				user.getRole()));
 
 		// Show success and navigate (reusing firstName and lastName from above)
 		String userEmail = user.getEmail();
@@ -1051,9 +1053,7 @@ public class RegisterActivity extends AppCompatActivity {
 
 		// Save user data
 		VerifyEmailResponse.User user = response.getData().getUser();
-		tokenManager.saveToken("Bearer " + response.getData().getToken());
-		tokenManager.saveEmail(user.getEmail());
-		
+
 		// Build name from firstName and lastName
 		String firstName = user.getFirstName();
 		String lastName = user.getLastName();
@@ -1069,9 +1069,13 @@ public class RegisterActivity extends AppCompatActivity {
 		}
 		
 		String userName = nameBuilder.toString();
-		if (userName != null && !userName.isEmpty()) {
-			tokenManager.saveName(userName);
-		}
+
+		// Save token and user data in a single write
+		tokenManager.saveSession(new TokenManager.Session(
+				"Bearer " + response.getData().getToken(),
+				user.getEmail(),
+				userName.isEmpty() ? null : userName,
+				user.getRole()));
 
 		// Close dialog and show success (reusing firstName and lastName from above)
 		dialog.dismiss();
@@ -7,6 +7,7 @@ import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
+import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ImageView;
@@ -22,22 +23,19 @@ import androidx.core.content.ContextCompat;
 
 import com.google.android.material.textfield.TextInputEditText;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.File;
 
-import app.hub.api.ApiClient;
-import app.hub.api.ApiService;
 import app.hub.api.CreateTicketResponse;
+import app.hub.data.TicketOutbox;
+import app.hub.util.ImagePreparer;
 import app.hub.util.TokenManager;
-import okhttp3.MediaType;
-import okhttp3.MultipartBody;
-import okhttp3.RequestBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
 public class ServiceSelectActivity extends AppCompatActivity {
 
+    private static final String TAG = "ServiceSelectActivity";
     private static final int REQUEST_CAMERA = 1;
     private static final int REQUEST_GALLERY = 2;
     private static final int CAMERA_PERMISSION_CODE = 100;
@@ -146,8 +144,6 @@ public class ServiceSelectActivity extends AppCompatActivity {
     }
 
     private Uri getImageUri(Bitmap bitmap) {
-        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 100, bytes);
         String path = MediaStore.Images.Media.insertImage(getContentResolver(), bitmap, "Title", null);
         return Uri.parse(path);
     }
@@ -163,49 +159,104 @@ public class ServiceSelectActivity extends AppCompatActivity {
             return;
         }
 
-        MultipartBody.Part imagePart = null;
-        if (imageUri != null) {
-            try {
-                Bitmap bitmap = MediaStore.Images.Media.getBitmap(this.getContentResolver(), imageUri);
-                ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                bitmap.compress(Bitmap.CompressFormat.JPEG, 100, stream);
-                byte[] byteArray = stream.toByteArray();
-                RequestBody requestFile = RequestBody.create(MediaType.parse("image/jpeg"), byteArray);
-                imagePart = MultipartBody.Part.createFormData("image", "image.jpg", requestFile);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+        if (!tokenManager.isLoggedIn()) {
+            Toast.makeText(this, "You are not logged in.", Toast.LENGTH_SHORT).show();
+            return;
         }
 
-        RequestBody descriptionBody = RequestBody.create(MediaType.parse("text/plain"), description);
-        RequestBody addressBody = RequestBody.create(MediaType.parse("text/plain"), address);
-        RequestBody contactBody = RequestBody.create(MediaType.parse("text/plain"), contact);
-        RequestBody serviceTypeBody = RequestBody.create(MediaType.parse("text/plain"), serviceType);
+        createTicketButton.setEnabled(false);
+        createTicketButton.setText("Submitting...");
 
-        ApiService apiService = ApiClient.getApiService();
-        String token = tokenManager.getToken();
-
-        if (token == null) {
-            Toast.makeText(this, "You are not logged in.", Toast.LENGTH_SHORT).show();
+        if (imageUri == null) {
+            submitTicket(description, address, contact, serviceType, null);
             return;
         }
 
-        Call<CreateTicketResponse> call = apiService.createTicket(token, descriptionBody, addressBody, contactBody, serviceTypeBody, imagePart);
+        // Decode, downsample and re-encode off the UI thread, then upload the small file
+        ImagePreparer.prepareAsync(this, imageUri, new ImagePreparer.Callback() {
+            @Override
+            public void onPrepared(File file) {
+                if (isFinishing() || isDestroyed()) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                    return;
+                }
+                submitTicket(description, address, contact, serviceType, file);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (isFinishing() || isDestroyed()) return;
+                resetSubmitButton();
+                Toast.makeText(ServiceSelectActivity.this, "Could not read the selected image", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void submitTicket(String description, String address, String contact, String serviceType, @Nullable File imageFile) {
+        // Persist first so the ticket survives a failed request or the app being killed
+        TicketOutbox outbox = TicketOutbox.getInstance(this);
+        outbox.enqueue(TicketOutbox.Kind.MULTIPART, null, description, serviceType, address, contact, imageFile,
+                new TicketOutbox.EnqueueCallback() {
+                    @Override
+                    public void onQueued(TicketOutbox.PendingTicket pending) {
+                        if (isFinishing() || isDestroyed()) {
+                            // Nobody to show progress to; the worker sends it
+                            outbox.markRetry(pending, "Screen closed");
+                            return;
+                        }
+                        sendTicket(outbox, pending);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Could not store ticket", e);
+                        if (isFinishing() || isDestroyed()) return;
+                        resetSubmitButton();
+                        Toast.makeText(ServiceSelectActivity.this, "An error occurred", Toast.LENGTH_SHORT).show();
+                    }
+                });
+    }
+
+    private void sendTicket(TicketOutbox outbox, TicketOutbox.PendingTicket pending) {
+        // Photo is streamed from disk in chunks; the button shows how much has been sent
+        Call<CreateTicketResponse> call = outbox.newCall(pending, (bytesWritten, contentLength) -> {
+            int percent = (int) (bytesWritten * 100 / Math.max(contentLength, 1));
+            createTicketButton.setText("Uploading " + percent + "%");
+        });
         call.enqueue(new Callback<CreateTicketResponse>() {
             @Override
             public void onResponse(Call<CreateTicketResponse> call, Response<CreateTicketResponse> response) {
+                resetSubmitButton();
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    outbox.markSent(pending);
                     Toast.makeText(ServiceSelectActivity.this, "Ticket created successfully", Toast.LENGTH_SHORT).show();
                     finish();
-                } else {
+                } else if (response.isSuccessful() || TicketOutbox.isPermanentFailure(response.code())) {
+                    // Rejected as sent; the form is still filled in so the user can fix it
+                    outbox.discard(pending);
                     Toast.makeText(ServiceSelectActivity.this, "Failed to create ticket", Toast.LENGTH_SHORT).show();
+                } else {
+                    queuedForRetry(outbox, pending, "HTTP " + response.code());
                 }
             }
 
             @Override
             public void onFailure(Call<CreateTicketResponse> call, Throwable t) {
-                Toast.makeText(ServiceSelectActivity.this, "An error occurred", Toast.LENGTH_SHORT).show();
+                resetSubmitButton();
+                queuedForRetry(outbox, pending, String.valueOf(t.getMessage()));
             }
         });
     }
+
+    private void queuedForRetry(TicketOutbox outbox, TicketOutbox.PendingTicket pending, String error) {
+        outbox.markRetry(pending, error);
+        Toast.makeText(this, "Ticket saved. It will be sent automatically once you're back online.", Toast.LENGTH_LONG).show();
+        finish();
+    }
+
+    private void resetSubmitButton() {
+        createTicketButton.setEnabled(true);
+        createTicketButton.setText("Submit Ticket Request");
+    }
 }
@@ -1,14 +1,47 @@
 package app.hub;
 
-public class Ticket {
-    private String title;
-    private String description;
-    private String status;
+import java.util.Objects;
 
-    public Ticket(String title, String description, String status) {
+/**
+ * Immutable ticket as shown in lists.
+ *
+ * Only the fields a list row needs are held here. The customer, the assigned staff member
+ * and the comments are looked up on demand through
+ * {@link app.hub.data.TicketRepository#loadRelations}, so scrolling a list never builds
+ * those objects.
+ */
+public final class Ticket {
+    // No staff member assigned yet
+    public static final long UNASSIGNED = 0;
+
+    private final long id;
+    private final String title;
+    private final String description;
+    private final TicketStatus status;
+    private final Priority priority;
+    private final long customerId;
+    private final long assignedStaffId;
+    private final int commentsCount;
+    // Epoch millis; updatedAt together with id is the paging cursor
+    private final long createdAt;
+    private final long updatedAt;
+
+    public Ticket(long id, String title, String description, TicketStatus status, Priority priority,
+                  long customerId, long assignedStaffId, int commentsCount, long createdAt, long updatedAt) {
+        this.id = id;
         this.title = title;
         this.description = description;
         this.status = status;
+        this.priority = priority;
+        this.customerId = customerId;
+        this.assignedStaffId = assignedStaffId;
+        this.commentsCount = commentsCount;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public long getId() {
+        return id;
     }
 
     public String getTitle() {
@@ -19,7 +52,55 @@ public class Ticket {
         return description;
     }
 
-    public String getStatus() {
+    public TicketStatus getStatus() {
         return status;
     }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public boolean isAssigned() {
+        return assignedStaffId != UNASSIGNED;
+    }
+
+    public int getCommentsCount() {
+        return commentsCount;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Ticket)) {
+            return false;
+        }
+        Ticket other = (Ticket) o;
+        // Not by identity: a status is re-interned whenever its name or color changes, and
+        // responses alternating between two versions would make every row look changed
+        return id == other.id
+                && updatedAt == other.updatedAt
+                && createdAt == other.createdAt
+                && customerId == other.customerId
+                && assignedStaffId == other.assignedStaffId
+                && commentsCount == other.commentsCount
+                && status.equals(other.status)
+                && priority == other.priority
+                && Objects.equals(title, other.title)
+                && Objects.equals(description, other.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, updatedAt);
+    }
 }
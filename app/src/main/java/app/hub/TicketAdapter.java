@@ -1,5 +1,6 @@
 package app.hub;
 
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,14 +9,16 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
+import app.hub.data.TicketPager;
 
 public class TicketAdapter extends RecyclerView.Adapter<TicketAdapter.TicketViewHolder> {
 
-    private List<Ticket> ticketList;
+    private final TicketPager pager;
 
-    public TicketAdapter(List<Ticket> ticketList) {
-        this.ticketList = ticketList;
+    // No stable ids: a placeholder's id would have to change when its page loads, which
+    // RecyclerView handles as a new item. Rows are matched by ticket id in the pager's diff.
+    public TicketAdapter(TicketPager pager) {
+        this.pager = pager;
     }
 
     @NonNull
@@ -27,15 +30,31 @@ public class TicketAdapter extends RecyclerView.Adapter<TicketAdapter.TicketView
 
     @Override
     public void onBindViewHolder(@NonNull TicketViewHolder holder, int position) {
-        Ticket ticket = ticketList.get(position);
+        // Also prefetches the pages around this position
+        Ticket ticket = pager.get(position);
+        if (ticket == null) {
+            // Placeholder until its page is loaded
+            holder.ticketTitle.setText("");
+            holder.ticketDescription.setText("");
+            holder.ticketStatus.setText("");
+            holder.itemView.setOnClickListener(null);
+            return;
+        }
         holder.ticketTitle.setText(ticket.getTitle());
         holder.ticketDescription.setText(ticket.getDescription());
-        holder.ticketStatus.setText("Status: " + ticket.getStatus());
+        // Rows synced without a status name still get a readable label
+        String status = ticket.getStatus().getName();
+        Context context = holder.itemView.getContext();
+        if (status == null || status.trim().isEmpty()) {
+            status = context.getString(R.string.ticket_status_unknown);
+        }
+        holder.ticketStatus.setText(context.getString(R.string.ticket_status, status));
+        holder.itemView.setOnClickListener(v -> TicketDetailActivity.start(context, ticket));
     }
 
     @Override
     public int getItemCount() {
-        return ticketList.size();
+        return pager.size();
     }
 
     static class TicketViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,116 @@
+package app.hub;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.util.List;
+
+import app.hub.data.TicketRepository;
+
+/**
+ * One ticket with the parts list rows leave out. The row's own fields come in the Intent and
+ * show right away; customer and staff follow from the store, and the comments once
+ * GET api/v1/tickets/{id} answers. Offline the screen keeps the comment count.
+ */
+public class TicketDetailActivity extends AppCompatActivity {
+    private static final String EXTRA_ID = "ticket_id";
+    private static final String EXTRA_TITLE = "title";
+    private static final String EXTRA_DESCRIPTION = "description";
+    private static final String EXTRA_STATUS = "status";
+    private static final String EXTRA_PRIORITY = "priority";
+    private static final String EXTRA_ASSIGNED = "assigned";
+    private static final String EXTRA_COMMENTS_COUNT = "comments_count";
+
+    private TextView customerTextView;
+    private TextView staffTextView;
+    private TextView commentsTextView;
+
+    public static void start(Context context, Ticket ticket) {
+        Intent intent = new Intent(context, TicketDetailActivity.class)
+                .putExtra(EXTRA_ID, ticket.getId())
+                .putExtra(EXTRA_TITLE, ticket.getTitle())
+                .putExtra(EXTRA_DESCRIPTION, ticket.getDescription())
+                .putExtra(EXTRA_STATUS, ticket.getStatus().getName())
+                .putExtra(EXTRA_PRIORITY, ticket.getPriority().getApiValue())
+                .putExtra(EXTRA_ASSIGNED, ticket.isAssigned())
+                .putExtra(EXTRA_COMMENTS_COUNT, ticket.getCommentsCount());
+        context.startActivity(intent);
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_ticket_detail);
+
+        Intent intent = getIntent();
+        long ticketId = intent.getLongExtra(EXTRA_ID, 0);
+        setTitle("Ticket #" + ticketId);
+
+        TextView titleTextView = findViewById(R.id.detailTitle);
+        TextView statusTextView = findViewById(R.id.detailStatus);
+        TextView priorityTextView = findViewById(R.id.detailPriority);
+        TextView descriptionTextView = findViewById(R.id.detailDescription);
+        customerTextView = findViewById(R.id.detailCustomer);
+        staffTextView = findViewById(R.id.detailStaff);
+        commentsTextView = findViewById(R.id.detailComments);
+
+        titleTextView.setText(intent.getStringExtra(EXTRA_TITLE));
+        descriptionTextView.setText(intent.getStringExtra(EXTRA_DESCRIPTION));
+        String status = intent.getStringExtra(EXTRA_STATUS);
+        if (status == null || status.trim().isEmpty()) {
+            status = getString(R.string.ticket_status_unknown);
+        }
+        statusTextView.setText(getString(R.string.ticket_status, status));
+        priorityTextView.setText(getString(R.string.ticket_priority, intent.getStringExtra(EXTRA_PRIORITY)));
+        if (!intent.getBooleanExtra(EXTRA_ASSIGNED, false)) {
+            staffTextView.setText(R.string.ticket_unassigned);
+        }
+        int commentsCount = intent.getIntExtra(EXTRA_COMMENTS_COUNT, 0);
+        commentsTextView.setText(commentsCount == 0
+                ? getString(R.string.ticket_no_comments)
+                : getString(R.string.ticket_comments_count, commentsCount));
+
+        TicketRepository.getInstance(this).loadRelations(ticketId, commentsCount > 0, this::showRelations);
+    }
+
+    private void showRelations(TicketRelations relations) {
+        if (isDestroyed()) {
+            return;
+        }
+        if (relations.getCustomer() != null) {
+            customerTextView.setText(getString(R.string.ticket_customer, displayName(relations.getCustomer())));
+        }
+        if (relations.getAssignedStaff() != null) {
+            staffTextView.setText(getString(R.string.ticket_assigned_to, displayName(relations.getAssignedStaff())));
+        }
+        List<TicketRelations.Comment> comments = relations.getComments();
+        if (comments == null) {
+            // Not fetched (yet); keep the count
+            return;
+        }
+        if (comments.isEmpty()) {
+            commentsTextView.setText(R.string.ticket_no_comments);
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (TicketRelations.Comment comment : comments) {
+            if (text.length() > 0) {
+                text.append("\n\n");
+            }
+            if (comment.getAuthor() != null) {
+                text.append(displayName(comment.getAuthor())).append(": ");
+            }
+            text.append(comment.getText());
+        }
+        commentsTextView.setText(text);
+    }
+
+    private static String displayName(TicketRelations.Person person) {
+        String name = person.getName();
+        return name != null && !name.trim().isEmpty() ? name : person.getEmail();
+    }
+}
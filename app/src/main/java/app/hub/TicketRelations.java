@@ -0,0 +1,101 @@
+package app.hub;
+
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parts of a {@link Ticket} that list screens do not show: who raised it, who is working
+ * on it and its comments. Loaded on demand through
+ * {@link app.hub.data.TicketRepository#loadRelations}.
+ */
+public final class TicketRelations {
+    private final Person customer;
+    private final Person assignedStaff;
+    private final List<Comment> comments;
+
+    public TicketRelations(@Nullable Person customer, @Nullable Person assignedStaff, @Nullable List<Comment> comments) {
+        this.customer = customer;
+        this.assignedStaff = assignedStaff;
+        this.comments = comments != null ? Collections.unmodifiableList(comments) : null;
+    }
+
+    @Nullable
+    public Person getCustomer() {
+        return customer;
+    }
+
+    @Nullable
+    public Person getAssignedStaff() {
+        return assignedStaff;
+    }
+
+    /**
+     * Null until the comments were fetched from the server.
+     */
+    @Nullable
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public TicketRelations withComments(List<Comment> comments) {
+        return new TicketRelations(customer, assignedStaff, comments);
+    }
+
+    public static final class Person {
+        private final long id;
+        private final String name;
+        private final String email;
+
+        public Person(long id, String name, String email) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+    }
+
+    public static final class Comment {
+        private final long id;
+        private final String text;
+        private final Person author;
+        // Epoch millis
+        private final long createdAt;
+
+        public Comment(long id, String text, @Nullable Person author, long createdAt) {
+            this.id = id;
+            this.text = text;
+            this.author = author;
+            this.createdAt = createdAt;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        @Nullable
+        public Person getAuthor() {
+            return author;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
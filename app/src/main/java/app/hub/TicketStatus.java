@@ -0,0 +1,68 @@
+package app.hub;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A server-defined ticket status ("Open", "In Progress", ...).
+ *
+ * Statuses are interned by id: every ticket with the same status shares one instance, so a
+ * list of thousands of tickets holds a handful of these. Filters compare by {@link #getId()};
+ * equals() compares id, name and color, and is true for the same instance without reading them.
+ */
+public final class TicketStatus {
+    private static final ConcurrentHashMap<Integer, TicketStatus> INTERNED = new ConcurrentHashMap<>();
+
+    private final int id;
+    private final String name;
+    private final String color;
+
+    private TicketStatus(int id, String name, String color) {
+        this.id = id;
+        this.name = name;
+        this.color = color;
+    }
+
+    /**
+     * The shared instance for this id. If the server renamed or recoloured the status a new
+     * instance replaces the old one, so rows showing the old label compare as changed.
+     */
+    public static TicketStatus of(int id, String name, String color) {
+        TicketStatus current = INTERNED.get(id);
+        if (current != null && Objects.equals(current.name, name) && Objects.equals(current.color, color)) {
+            return current;
+        }
+        TicketStatus status = new TicketStatus(id, name, color);
+        INTERNED.put(id, status);
+        return status;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TicketStatus)) {
+            return false;
+        }
+        TicketStatus other = (TicketStatus) o;
+        return id == other.id && Objects.equals(name, other.name) && Objects.equals(color, other.color);
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+}
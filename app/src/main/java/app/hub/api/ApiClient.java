@@ -1,63 +1,211 @@
 package app.hub.api;
 
+import android.content.Context;
 import android.util.Log;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import app.hub.util.TokenManager;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 public class ApiClient {
     private static final String TAG = "ApiClient";
-    
+
     // Change this to your Laravel API URL
     // For Android emulator: http://10.0.2.2:8000/
     // For physical device: http://YOUR_COMPUTER_IP:8000/
     // Example: http://192.168.1.100:8000/
     // Note: Trailing slash is required when endpoints don't start with /
     private static final String BASE_URL = "http://10.0.2.2:8000/";
-    
-    private static Retrofit retrofit = null;
+
+    // The chatbot service (com.servicehub.remote.ApiService) uses paths relative to api/v1/
+    private static final String CHAT_BASE_URL = BASE_URL + "api/v1/";
+
+    // Connection pool: keep a few idle sockets alive so login -> profile -> tickets reuse them
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    // Dispatcher limits: everything goes to one host, so allow a handful of parallel calls
+    private static final int MAX_REQUESTS = 32;
+    private static final int MAX_REQUESTS_PER_HOST = 8;
+
+    // On-disk HTTP cache (see CachePolicy for which endpoints are cached and for how long)
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 10L * 1024 * 1024; // 10 MB
+
+    // Shared so screens can observe backend health (see getCircuitBreaker())
+    private static final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private static volatile Context appContext = null;
+    private static volatile OkHttpClient okHttpClient = null;
+    private static volatile Retrofit retrofit = null;
+    private static volatile Retrofit chatRetrofit = null;
+
+    // Retrofit proxies are immutable and thread-safe, so one instance per interface is enough
+    private static final ConcurrentHashMap<Class<?>, Object> services = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Class<?>, Object> chatServices = new ConcurrentHashMap<>();
+
+    /**
+     * Called once from HubApplication so the client can use the app cache directory.
+     */
+    public static void init(Context context) {
+        appContext = context.getApplicationContext();
+    }
+
+    /**
+     * Shared OkHttpClient. Every Retrofit instance is built on top of this one so they
+     * all use the same connection pool and dispatcher.
+     */
+    public static OkHttpClient getHttpClient() {
+        OkHttpClient client = okHttpClient;
+        if (client == null) {
+            synchronized (ApiClient.class) {
+                client = okHttpClient;
+                if (client == null) {
+                    client = buildHttpClient();
+                    okHttpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private static OkHttpClient buildHttpClient() {
+        // Logging level and body sampling come from the build type (see app/build.gradle.kts)
+        HttpLogger httpLogger = HttpLogger.fromBuildConfig();
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        // Default timeouts; Retrofit calls override them per CallProfile
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectTimeout(30, TimeUnit.SECONDS)      // Connection timeout: 30 seconds
+                .readTimeout(30, TimeUnit.SECONDS)         // Read timeout: 30 seconds
+                .writeTimeout(30, TimeUnit.SECONDS)        // Write timeout: 30 seconds
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                // Per-endpoint timings and sizes, see NetworkMetrics
+                .eventListenerFactory(NetworkMetrics.getInstance().eventListenerFactory())
+                .retryOnConnectionFailure(true)
+                // Outermost, so an open circuit fails before any retry and a call counts once
+                .addInterceptor(circuitBreaker)
+                // Every attempt runs through the interceptors below again
+                .addInterceptor(new RetryPolicy());
+
+        Context context = appContext;
+        if (context != null) {
+            // Bearer token is attached here instead of at every call site
+            AuthInterceptor authInterceptor = new AuthInterceptor(new TokenManager(context));
+            builder.addInterceptor(authInterceptor)
+                    .authenticator(authInterceptor)
+                    .cache(new Cache(new File(context.getCacheDir(), HTTP_CACHE_DIR), HTTP_CACHE_SIZE));
+        } else {
+            Log.w(TAG, "ApiClient.init() was not called, auth and HTTP cache disabled");
+        }
+        WireFormat wireFormat = WireFormat.fromBuildConfig();
+        if (wireFormat != null) {
+            // Application interceptor so the cache sees the same Accept header it Varies on
+            builder.addInterceptor(wireFormat);
+        }
+        // After auth and Accept, which are part of the key for identical requests
+        builder.addInterceptor(new RequestCoalescer());
+        return builder.addInterceptor(httpLogger)
+                // After the logger so logged request bodies are still readable JSON
+                .addInterceptor(RequestCompression.fromBuildConfig())
+                .addNetworkInterceptor(new CachePolicy())
+                .build();
+    }
+
+    private static Gson createGson() {
+        // Hand-written adapters for the API models, so parsing does not go through reflection
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapters())
+                .setLenient()
+                .create();
+    }
 
     public static Retrofit getClient() {
-        if (retrofit == null) {
-            // Create logging interceptor for debugging
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-            
-            // Create OkHttpClient with increased timeouts and logging
-            OkHttpClient okHttpClient = new OkHttpClient.Builder()
-                    .connectTimeout(30, TimeUnit.SECONDS)      // Connection timeout: 30 seconds
-                    .readTimeout(30, TimeUnit.SECONDS)         // Read timeout: 30 seconds
-                    .writeTimeout(30, TimeUnit.SECONDS)        // Write timeout: 30 seconds
-                    .addInterceptor(loggingInterceptor)
-                    .build();
-            
-            Gson gson = new GsonBuilder()
-                    .setLenient()
-                    .create();
-
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .client(okHttpClient)
-                    .addConverterFactory(GsonConverterFactory.create(gson))
-                    .build();
-            
-            Log.d(TAG, "Retrofit client initialized with BASE_URL: " + BASE_URL);
+        Retrofit instance = retrofit;
+        if (instance == null) {
+            synchronized (ApiClient.class) {
+                instance = retrofit;
+                if (instance == null) {
+                    instance = new Retrofit.Builder()
+                            .baseUrl(BASE_URL)
+                            // Timeouts and dispatcher lane come from each method's CallProfile
+                            .callFactory(new ProfiledCallFactory(getHttpClient()))
+                            // Reads CBOR or JSON depending on the response Content-Type
+                            .addConverterFactory(WireFormat.converterFactory(createGson()))
+                            .build();
+                    retrofit = instance;
+                    Log.d(TAG, "Retrofit client initialized with BASE_URL: " + BASE_URL);
+                }
+            }
         }
-        return retrofit;
+        return instance;
+    }
+
+    private static Retrofit getChatClient() {
+        Retrofit instance = chatRetrofit;
+        if (instance == null) {
+            synchronized (ApiClient.class) {
+                instance = chatRetrofit;
+                if (instance == null) {
+                    instance = getClient().newBuilder()
+                            .baseUrl(CHAT_BASE_URL)
+                            .build();
+                    chatRetrofit = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cached Retrofit proxy for the given service interface, creating it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getService(Class<T> serviceClass) {
+        Object service = services.get(serviceClass);
+        if (service == null) {
+            service = services.computeIfAbsent(serviceClass, cls -> getClient().create(cls));
+        }
+        return (T) service;
     }
 
     public static ApiService getApiService() {
-        Log.d(TAG, "Creating ApiService with BASE_URL: " + BASE_URL);
-        return getClient().create(ApiService.class);
+        return getService(ApiService.class);
+    }
+
+    /**
+     * Cached proxy for the chatbot service, which resolves its paths against api/v1/.
+     */
+    public static com.servicehub.remote.ApiService getChatService() {
+        Object service = chatServices.get(com.servicehub.remote.ApiService.class);
+        if (service == null) {
+            service = chatServices.computeIfAbsent(com.servicehub.remote.ApiService.class,
+                    cls -> getChatClient().create(cls));
+        }
+        return (com.servicehub.remote.ApiService) service;
+    }
+
+    /**
+     * Per endpoint group health of the backend, for offline indicators.
+     */
+    public static CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
     }
-    
+
     // Get the base URL for debugging
     public static String getBaseUrl() {
         return BASE_URL;
@@ -3,45 +3,85 @@ package app.hub.api;
 import com.servicehub.model.ChatRequest;
 import com.servicehub.model.ChatResponse;
 
+import app.hub.api.CallProfile.Profile;
+
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.Part;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
+// The Authorization header is added by AuthInterceptor for every call once the user is logged in
 public interface ApiService {
+    @Profile(CallProfile.INTERACTIVE)
     @POST("api/v1/login")
     Call<LoginResponse> login(@Body LoginRequest request);
 
+    @Profile(CallProfile.INTERACTIVE)
     @POST("api/v1/register")
     Call<RegisterResponse> register(@Body RegisterRequest request);
 
+    @Profile(CallProfile.INTERACTIVE)
     @POST("api/v1/send-verification-code")
     Call<VerificationResponse> sendVerificationCode(@Body VerificationRequest request);
 
+    @Profile(CallProfile.INTERACTIVE)
     @POST("api/v1/verify-email")
     Call<VerifyEmailResponse> verifyEmail(@Body VerifyEmailRequest request);
 
+    @Profile(CallProfile.INTERACTIVE)
     @POST("api/v1/logout")
-    Call<LogoutResponse> logout(@Header("Authorization") String token);
+    Call<LogoutResponse> logout();
 
     @GET("api/v1/user")
-    Call<UserResponse> getUser(@Header("Authorization") String token);
+    Call<UserResponse> getUser();
+
+    // updated_since (ISO-8601) limits the result to tickets changed since then, plus deleted_ids.
+    // Streamed: read the body with TicketListStream so rows are stored while it downloads.
+    @Profile(CallProfile.BULK)
+    @WireFormat.Negotiate
+    @Streaming
+    @GET("api/v1/tickets")
+    Call<ResponseBody> getTickets(
+            @Query("scope") String scope,
+            @Query("updated_since") String updatedSince,
+            @Query("page") int page,
+            @Query("per_page") int perPage
+    );
 
+    @GET("api/v1/tickets/{id}")
+    Call<TicketResponse> getTicket(@Path("id") long id);
+
+    @Profile(CallProfile.INTERACTIVE)
     @POST("api/v1/chatbot")
     Call<ChatResponse> sendMessage(@Body ChatRequest request);
 
+    // Same endpoint, reply streamed as it is generated; read with ChatStream.
+    // Servers without streaming answer with the plain ChatResponse JSON.
+    @Profile(CallProfile.STREAMING)
+    @Streaming
+    @Headers("Accept: text/event-stream, application/json;q=0.9")
+    @POST("api/v1/chatbot")
+    Call<ResponseBody> streamMessage(@Body ChatRequest request);
+
+    // Idempotency-Key is the TicketOutbox row key, so a retried submission is not created twice
     @POST("api/v1/tickets")
-    Call<CreateTicketResponse> createTicket(@Header("Authorization") String token, @Body CreateTicketRequest request);
+    Call<CreateTicketResponse> createTicket(@Header("Idempotency-Key") String idempotencyKey, @Body CreateTicketRequest request);
 
+    @Profile(CallProfile.UPLOAD)
     @Multipart
     @POST("api/v1/tickets")
     Call<CreateTicketResponse> createTicket(
-            @Header("Authorization") String token,
+            @Header("Idempotency-Key") String idempotencyKey,
             @Part("description") RequestBody description,
             @Part("address") RequestBody address,
             @Part("contact") RequestBody contact,
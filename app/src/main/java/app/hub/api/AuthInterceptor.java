@@ -0,0 +1,83 @@
+package app.hub.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+
+import app.hub.util.TokenManager;
+import okhttp3.Authenticator;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * Adds the stored bearer token to every request and handles 401 responses.
+ *
+ * The token is read from TokenManager's in-memory snapshot, so this costs a volatile read
+ * per request instead of a SharedPreferences lookup at each call site.
+ *
+ * On 401 the authenticator runs under a single lock. The first request to get there decides
+ * what to do; requests that were in flight with the same old token queue up behind it and
+ * simply retry with whatever token is current once it is done. The backend (Laravel Sanctum)
+ * has no refresh endpoint, so when the current token itself is rejected the session is
+ * cleared once and the 401 is passed back to the caller.
+ */
+public class AuthInterceptor implements Interceptor, Authenticator {
+    private static final String TAG = "AuthInterceptor";
+    static final String HEADER_AUTHORIZATION = "Authorization";
+
+    private final TokenManager tokenManager;
+    private final Object authLock = new Object();
+
+    public AuthInterceptor(TokenManager tokenManager) {
+        this.tokenManager = tokenManager;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String token = tokenManager.getToken();
+        if (token == null || request.header(HEADER_AUTHORIZATION) != null) {
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder()
+                .header(HEADER_AUTHORIZATION, token)
+                .build());
+    }
+
+    @Override
+    public Request authenticate(Route route, Response response) {
+        String failedToken = response.request().header(HEADER_AUTHORIZATION);
+        if (failedToken == null) {
+            // Not an authenticated call (e.g. wrong password on login), nothing to do
+            return null;
+        }
+        if (priorResponseCount(response) > 1) {
+            return null;
+        }
+
+        synchronized (authLock) {
+            String current = tokenManager.getToken();
+            if (current != null && !current.equals(failedToken)) {
+                // Token was replaced while this request was in flight (re-login); retry with it
+                return response.request().newBuilder()
+                        .header(HEADER_AUTHORIZATION, current)
+                        .build();
+            }
+            if (current != null) {
+                Log.w(TAG, "Token rejected by server, clearing session");
+                tokenManager.clear();
+            }
+            return null;
+        }
+    }
+
+    private static int priorResponseCount(Response response) {
+        int count = 1;
+        while ((response = response.priorResponse()) != null) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,85 @@
+package app.hub.api;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Per-endpoint cache rules for GET requests, installed as a network interceptor in front of
+ * the OkHttp disk cache.
+ *
+ * Laravel sends "Cache-Control: no-cache, private" by default, which OkHttp stores but never
+ * treats as fresh. For endpoints in the table below we replace that with an explicit max-age,
+ * so a response is served straight from disk while fresh and revalidated afterwards. When the
+ * server sends an ETag or Last-Modified header (e.g. via the cache.headers:etag middleware),
+ * OkHttp adds If-None-Match / If-Modified-Since on revalidation and a 304 reuses the cached body.
+ *
+ * Responses also get "Vary: Authorization" so a cached body is never handed to another user,
+ * and "Vary: Accept" so a CBOR body is never served to a request that asked for JSON.
+ */
+public class CachePolicy implements Interceptor {
+
+    // Path prefix -> seconds a cached response is considered fresh (0 = always revalidate)
+    private static final Map<String, Integer> MAX_AGE_SECONDS = new LinkedHashMap<>();
+
+    static {
+        MAX_AGE_SECONDS.put("/api/v1/user", 60);
+        // Ticket lists change often but are large; always revalidate so unchanged lists come back as 304
+        MAX_AGE_SECONDS.put("/api/v1/tickets", 0);
+    }
+
+    /**
+     * Returns the max-age for a path, or -1 if the endpoint is not in the table. A prefix
+     * matches whole path segments only, so /api/v1/user does not cover /api/v1/users.
+     */
+    static int maxAgeFor(String path) {
+        return PathPrefix.lookup(MAX_AGE_SECONDS, path, -1);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        // A 304's headers are merged into the cached entry, so it needs the same rewrite or
+        // Laravel's no-cache would replace our max-age on the first revalidation
+        if (!"GET".equals(request.method()) || (!response.isSuccessful() && response.code() != 304)) {
+            return response;
+        }
+        int maxAge = maxAgeFor(request.url().encodedPath());
+        if (maxAge < 0) {
+            return response;
+        }
+        String serverCacheControl = response.header("Cache-Control");
+        if (serverCacheControl != null && serverCacheControl.contains("no-store")) {
+            // Server explicitly asked us not to keep this one
+            return response;
+        }
+
+        String cacheControl = maxAge > 0
+                ? "private, max-age=" + maxAge
+                : "private, no-cache";
+        String vary = addVary(addVary(response.header("Vary"), "Authorization"), "Accept");
+        return response.newBuilder()
+                .header("Cache-Control", cacheControl)
+                .header("Vary", vary)
+                .removeHeader("Pragma")
+                .build();
+    }
+
+    private static String addVary(String vary, String header) {
+        if (vary == null || vary.isEmpty()) {
+            return header;
+        }
+        for (String token : vary.split(",")) {
+            if (token.trim().equalsIgnoreCase(header) || token.trim().equals("*")) {
+                return vary;
+            }
+        }
+        return vary + ", " + header;
+    }
+}
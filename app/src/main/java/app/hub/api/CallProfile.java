@@ -0,0 +1,54 @@
+package app.hub.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Timeouts and dispatcher lane for a kind of call. Pick one for a service method with
+ * {@link Profile}; unannotated methods use DEFAULT.
+ *
+ * Interactive calls fail quickly so the user is not left looking at a spinner; STREAMING
+ * calls connect just as quickly but then wait as long as the stream lasts. BULK and
+ * UPLOAD calls run on their own dispatcher with low-priority threads (see
+ * {@link ProfiledCallFactory}), so a photo upload or a full ticket download never holds up
+ * login or chat. That covers enqueued calls; a caller that uses execute() for a bulk call
+ * brings its own low-priority thread, as the ticket sync does.
+ */
+public enum CallProfile {
+    // Small request, user waiting on it: login, verification, chat
+    INTERACTIVE(10, 20, 15, false),
+    DEFAULT(15, 30, 30, false),
+    // Large downloads, e.g. a streamed ticket list
+    BULK(15, 60, 30, true),
+    // Multipart bodies with photos; slow links need a long write timeout
+    UPLOAD(15, 60, 120, true),
+    // Server-sent replies that can pause for a long time between events. No read timeout (0):
+    // the caller ends the stream with Call.cancel() when the user leaves
+    STREAMING(10, 0, 15, false);
+
+    /**
+     * Selects the profile for a Retrofit service method.
+     */
+    @Documented
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Profile {
+        CallProfile value();
+    }
+
+    final int connectTimeoutSeconds;
+    final int readTimeoutSeconds;
+    final int writeTimeoutSeconds;
+    // Runs on the low-priority bulk dispatcher instead of the interactive one
+    final boolean bulkLane;
+
+    CallProfile(int connectTimeoutSeconds, int readTimeoutSeconds, int writeTimeoutSeconds, boolean bulkLane) {
+        this.connectTimeoutSeconds = connectTimeoutSeconds;
+        this.readTimeoutSeconds = readTimeoutSeconds;
+        this.writeTimeoutSeconds = writeTimeoutSeconds;
+        this.bulkLane = bulkLane;
+    }
+}
@@ -0,0 +1,483 @@
+package app.hub.api;
+
+import android.util.Base64;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * Pull parser for CBOR (RFC 8949) behind Gson's JsonReader API.
+ *
+ * Because it is a JsonReader, every adapter in {@link ModelTypeAdapters} and
+ * {@link TicketListStream} reads CBOR bodies unchanged. CBOR maps the JSON data model
+ * one-to-one: maps become objects, arrays arrays, text strings strings, integers and floats
+ * numbers, and the simple values false/true/null/undefined booleans and null. Tags are
+ * skipped, byte strings are surfaced as base64 strings, and non-text map keys are read as
+ * their string form. Definite and indefinite lengths are both supported.
+ */
+class CborReader extends JsonReader {
+    private static final Reader UNUSED = new StringReader("");
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+    private static final int MAJOR_SIMPLE = 7;
+    private static final int INDEFINITE = 31;
+    private static final int BREAK = 0xff;
+    // Read size for byte and text strings
+    private static final int CHUNK_BYTES = 8192;
+    // No field in these models comes anywhere near this; a longer string means a bad body
+    private static final int MAX_STRING_BYTES = 16 * 1024 * 1024;
+
+    private static final class Frame {
+        final boolean map;
+        // Items (arrays) or pairs (maps) left; -1 until the break byte for indefinite lengths
+        long remaining;
+        boolean expectName;
+
+        Frame(boolean map, long remaining) {
+            this.map = map;
+            this.remaining = remaining;
+            this.expectName = map;
+        }
+    }
+
+    private final InputStream in;
+    private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+    private boolean documentDone;
+
+    // What peek() found; null until the next peek
+    private JsonToken peeked;
+    private String peekedString;
+    private long peekedLong;
+    private double peekedDouble;
+    private boolean peekedIsDouble;
+    private long peekedCount;
+
+    CborReader(InputStream in) {
+        super(UNUSED);
+        this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in);
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        Frame top = stack.peek();
+        if (top == null && documentDone) {
+            return peeked = JsonToken.END_DOCUMENT;
+        }
+        int initial;
+        if (top != null && top.remaining == 0) {
+            return peeked = top.map ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        }
+        initial = readByte();
+        if (top != null && top.remaining < 0 && initial == BREAK) {
+            return peeked = top.map ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        }
+        // Tags only annotate the item that follows
+        while (initial >>> 5 == MAJOR_TAG) {
+            readArgument(initial & 0x1f);
+            initial = readByte();
+        }
+
+        JsonToken token = decode(initial);
+        if (top != null && top.map && top.expectName) {
+            if (token == JsonToken.NUMBER) {
+                peekedString = peekedIsDouble ? Double.toString(peekedDouble) : Long.toString(peekedLong);
+            } else if (token == JsonToken.BOOLEAN) {
+                peekedString = Boolean.toString(peekedLong != 0);
+            } else if (token != JsonToken.STRING) {
+                throw syntaxError("Unsupported map key " + token);
+            }
+            token = JsonToken.NAME;
+        }
+        return peeked = token;
+    }
+
+    private JsonToken decode(int initial) throws IOException {
+        int major = initial >>> 5;
+        int info = initial & 0x1f;
+        switch (major) {
+            case MAJOR_UNSIGNED: {
+                long value = readArgument(info);
+                if (value < 0) {
+                    // Above Long.MAX_VALUE
+                    peekedIsDouble = true;
+                    peekedDouble = unsignedToDouble(value);
+                } else {
+                    peekedIsDouble = false;
+                    peekedLong = value;
+                }
+                return JsonToken.NUMBER;
+            }
+            case MAJOR_NEGATIVE: {
+                long value = readArgument(info);
+                if (value < 0) {
+                    peekedIsDouble = true;
+                    peekedDouble = -1 - unsignedToDouble(value);
+                } else {
+                    peekedIsDouble = false;
+                    peekedLong = -1 - value;
+                }
+                return JsonToken.NUMBER;
+            }
+            case MAJOR_BYTES:
+                peekedString = Base64.encodeToString(readChunks(MAJOR_BYTES, info), Base64.NO_WRAP);
+                return JsonToken.STRING;
+            case MAJOR_TEXT:
+                peekedString = new String(readChunks(MAJOR_TEXT, info), StandardCharsets.UTF_8);
+                return JsonToken.STRING;
+            case MAJOR_ARRAY:
+                peekedCount = info == INDEFINITE ? -1 : readArgument(info);
+                return JsonToken.BEGIN_ARRAY;
+            case MAJOR_MAP:
+                peekedCount = info == INDEFINITE ? -1 : readArgument(info);
+                return JsonToken.BEGIN_OBJECT;
+            case MAJOR_SIMPLE:
+                return decodeSimple(info);
+            default:
+                throw syntaxError("Unexpected major type " + major);
+        }
+    }
+
+    private JsonToken decodeSimple(int info) throws IOException {
+        switch (info) {
+            case 20:
+                peekedLong = 0;
+                return JsonToken.BOOLEAN;
+            case 21:
+                peekedLong = 1;
+                return JsonToken.BOOLEAN;
+            case 22:
+            case 23:
+                // null, undefined
+                return JsonToken.NULL;
+            case 25:
+                peekedIsDouble = true;
+                peekedDouble = halfToDouble((int) readUnsigned(2));
+                return JsonToken.NUMBER;
+            case 26:
+                peekedIsDouble = true;
+                peekedDouble = Float.intBitsToFloat((int) readUnsigned(4));
+                return JsonToken.NUMBER;
+            case 27:
+                peekedIsDouble = true;
+                peekedDouble = Double.longBitsToDouble(readUnsigned(8));
+                return JsonToken.NUMBER;
+            default:
+                throw syntaxError("Unsupported simple value " + info);
+        }
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(JsonToken.BEGIN_ARRAY);
+        stack.push(new Frame(false, peekedCount));
+        peeked = null;
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(JsonToken.END_ARRAY);
+        stack.pop();
+        consumedValue();
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(JsonToken.BEGIN_OBJECT);
+        stack.push(new Frame(true, peekedCount));
+        peeked = null;
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(JsonToken.END_OBJECT);
+        stack.pop();
+        consumedValue();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        JsonToken token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        expect(JsonToken.NAME);
+        String name = peekedString;
+        peeked = null;
+        stack.peek().expectName = false;
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        JsonToken token = peek();
+        String value;
+        if (token == JsonToken.STRING) {
+            value = peekedString;
+        } else if (token == JsonToken.NUMBER) {
+            value = peekedIsDouble ? Double.toString(peekedDouble) : Long.toString(peekedLong);
+        } else {
+            throw syntaxError("Expected a string but was " + token);
+        }
+        consumedValue();
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        expect(JsonToken.BOOLEAN);
+        boolean value = peekedLong != 0;
+        consumedValue();
+        return value;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(JsonToken.NULL);
+        consumedValue();
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        JsonToken token = peek();
+        double value;
+        if (token == JsonToken.NUMBER) {
+            value = peekedIsDouble ? peekedDouble : peekedLong;
+        } else if (token == JsonToken.STRING) {
+            value = parseDouble(peekedString);
+        } else {
+            throw syntaxError("Expected a double but was " + token);
+        }
+        consumedValue();
+        return value;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        JsonToken token = peek();
+        long value;
+        if (token == JsonToken.NUMBER && !peekedIsDouble) {
+            value = peekedLong;
+        } else {
+            double asDouble = token == JsonToken.NUMBER ? peekedDouble
+                    : token == JsonToken.STRING ? parseDouble(peekedString) : Double.NaN;
+            value = (long) asDouble;
+            if (value != asDouble) {
+                throw new NumberFormatException("Expected a long but was " + token);
+            }
+        }
+        consumedValue();
+        return value;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        JsonToken token = peek();
+        long value;
+        if (token == JsonToken.NUMBER && !peekedIsDouble) {
+            value = peekedLong;
+        } else {
+            double asDouble = token == JsonToken.NUMBER ? peekedDouble
+                    : token == JsonToken.STRING ? parseDouble(peekedString) : Double.NaN;
+            value = (long) asDouble;
+            if (value != asDouble) {
+                throw new NumberFormatException("Expected an int but was " + token);
+            }
+        }
+        if (value != (int) value) {
+            throw new NumberFormatException("Expected an int but was " + value);
+        }
+        consumedValue();
+        return (int) value;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        switch (peek()) {
+            case BEGIN_ARRAY:
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+                break;
+            case BEGIN_OBJECT:
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+                break;
+            case NAME:
+                nextName();
+                break;
+            case END_ARRAY:
+            case END_OBJECT:
+            case END_DOCUMENT:
+                throw syntaxError("Nothing to skip");
+            default:
+                // Scalars were fully read by peek()
+                consumedValue();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = null;
+        stack.clear();
+        in.close();
+    }
+
+    @Override
+    public String getPath() {
+        return "$ (cbor, depth " + stack.size() + ")";
+    }
+
+    @Override
+    public String toString() {
+        return "CborReader at " + getPath();
+    }
+
+    private void expect(JsonToken expected) throws IOException {
+        JsonToken token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+    }
+
+    // A complete value (scalar or closed container) was consumed at the current level
+    private void consumedValue() {
+        peeked = null;
+        Frame top = stack.peek();
+        if (top == null) {
+            documentDone = true;
+            return;
+        }
+        if (top.map) {
+            top.expectName = true;
+        }
+        if (top.remaining > 0) {
+            top.remaining--;
+        }
+    }
+
+    private byte[] readChunks(int major, int info) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (info != INDEFINITE) {
+            readBytes(readArgument(info), out);
+            return out.toByteArray();
+        }
+        while (true) {
+            int initial = readByte();
+            if (initial == BREAK) {
+                return out.toByteArray();
+            }
+            if (initial >>> 5 != major) {
+                throw syntaxError("Bad chunk in indefinite-length string");
+            }
+            readBytes(readArgument(initial & 0x1f), out);
+        }
+    }
+
+    private long readArgument(int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24:
+                return readUnsigned(1);
+            case 25:
+                return readUnsigned(2);
+            case 26:
+                return readUnsigned(4);
+            case 27:
+                return readUnsigned(8);
+            default:
+                throw syntaxError("Bad additional info " + info);
+        }
+    }
+
+    private long readUnsigned(int bytes) throws IOException {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    /**
+     * Copies length bytes to out. The length comes off the wire, so nothing is allocated for
+     * it up front: out only grows as the bytes actually arrive, and a length larger than the
+     * body ends in an EOFException instead of an OutOfMemoryError.
+     */
+    private void readBytes(long length, ByteArrayOutputStream out) throws IOException {
+        if (length < 0 || length > MAX_STRING_BYTES - out.size()) {
+            throw syntaxError("String too long: " + length);
+        }
+        byte[] chunk = new byte[(int) Math.min(length, CHUNK_BYTES)];
+        long left = length;
+        while (left > 0) {
+            int read = in.read(chunk, 0, (int) Math.min(left, chunk.length));
+            if (read < 0) {
+                throw new EOFException("End of CBOR input inside a string");
+            }
+            out.write(chunk, 0, read);
+            left -= read;
+        }
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("End of CBOR input");
+        }
+        return b;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at " + getPath());
+    }
+
+    private static double parseDouble(String value) {
+        return Double.parseDouble(value);
+    }
+
+    private static double unsignedToDouble(long value) {
+        return (double) (value >>> 1) * 2.0 + (value & 1);
+    }
+
+    private static double halfToDouble(int half) {
+        int exponent = (half >> 10) & 0x1f;
+        int mantissa = half & 0x3ff;
+        double value;
+        if (exponent == 0) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+}
@@ -0,0 +1,271 @@
+package app.hub.api;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.servicehub.model.ChatRequest;
+import com.servicehub.model.ChatResponse;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * One chatbot reply, shown while it is being generated.
+ *
+ * The request asks for text/event-stream. Each SSE event carries the next piece of the reply,
+ * either as JSON ({"token": "..."}, also "delta", "text" or "content") or as plain text, and
+ * the stream ends with "[DONE]", an "event: done" or the end of the body. A text/plain body is
+ * read chunk by chunk as it arrives, and a server without streaming support simply answers
+ * with the usual ChatResponse JSON, which is shown in one go.
+ *
+ * Text is collected on a background thread and handed to the listener on the main thread at
+ * most every THROTTLE_MS, so a fast token stream does not rebind the bubble for every token.
+ * After cancel() the listener is not called again.
+ */
+public final class ChatStream {
+    private static final String TAG = "ChatStream";
+    // At most one rebind per this many ms while tokens are arriving
+    static final long THROTTLE_MS = 50;
+    private static final String DONE = "[DONE]";
+
+    private static final ExecutorService READER = Executors.newCachedThreadPool();
+
+    public interface Listener {
+        /**
+         * The reply so far. Throttled.
+         */
+        void onText(String text);
+
+        void onComplete(String text);
+
+        /**
+         * code is the HTTP status, or 0 if the server could not be reached.
+         */
+        void onError(int code, @Nullable Throwable error);
+    }
+
+    private final Call<ResponseBody> call;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Written on the reader thread, read on the main thread
+    private final StringBuilder text = new StringBuilder();
+    private volatile boolean canceled;
+    private boolean flushScheduled;
+    private final Runnable flush = this::flush;
+
+    private ChatStream(Call<ResponseBody> call, Listener listener) {
+        this.call = call;
+        this.listener = listener;
+    }
+
+    /**
+     * Sends the message and starts streaming the reply. Call from the main thread.
+     */
+    public static ChatStream start(ApiService apiService, String message, Listener listener) {
+        ChatStream stream = new ChatStream(apiService.streamMessage(new ChatRequest(message)), listener);
+        READER.execute(stream::run);
+        return stream;
+    }
+
+    /**
+     * Stops reading; whatever was shown so far stays.
+     */
+    public void cancel() {
+        canceled = true;
+        call.cancel();
+        mainHandler.removeCallbacks(flush);
+    }
+
+    private void run() {
+        Response<ResponseBody> response;
+        try {
+            response = call.execute();
+        } catch (IOException e) {
+            if (!canceled) {
+                Log.e(TAG, "Chat request failed", e);
+                deliverError(0, e);
+            }
+            return;
+        }
+        if (!response.isSuccessful() || response.body() == null) {
+            try (ResponseBody errorBody = response.errorBody()) {
+                Log.e(TAG, "API Error: " + response.code() + " " + (errorBody != null ? errorBody.string() : "No error body"));
+            } catch (IOException e) {
+                Log.e(TAG, "Error reading error body", e);
+            }
+            deliverError(response.code(), null);
+            return;
+        }
+
+        try (ResponseBody body = response.body()) {
+            MediaType contentType = body.contentType();
+            String subtype = contentType != null ? contentType.subtype() : "";
+            if ("event-stream".equalsIgnoreCase(subtype)) {
+                readEvents(body.source());
+            } else if (contentType != null && "text".equalsIgnoreCase(contentType.type())) {
+                readChunks(body.charStream());
+            } else {
+                // No streaming on this server: the whole reply at once
+                try (JsonReader in = WireFormat.newReader(body)) {
+                    ChatResponse reply = ModelTypeAdapters.CHAT_RESPONSE.read(in);
+                    append(reply.getReply() != null ? reply.getReply() : "");
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            if (!canceled) {
+                Log.e(TAG, "Chat stream broke off", e);
+                deliverError(0, e);
+            }
+            return;
+        }
+        deliverComplete();
+    }
+
+    private void readEvents(BufferedSource source) throws IOException {
+        String event = null;
+        StringBuilder data = new StringBuilder();
+        String line;
+        while (!canceled && (line = source.readUtf8Line()) != null) {
+            if (line.isEmpty()) {
+                // Blank line ends an event
+                if (!dispatch(event, data.toString())) {
+                    return;
+                }
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith(":")) {
+                // Comment / keep-alive
+            } else if (line.startsWith("event:")) {
+                event = fieldValue(line, 6);
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) {
+                    data.append('\n');
+                }
+                data.append(fieldValue(line, 5));
+            }
+        }
+        if (data.length() > 0) {
+            dispatch(event, data.toString());
+        }
+    }
+
+    /**
+     * Returns false once the stream says it is finished.
+     */
+    private boolean dispatch(@Nullable String event, String data) throws IOException {
+        if ("done".equals(event) || "end".equals(event) || DONE.equals(data)) {
+            return false;
+        }
+        if ("error".equals(event)) {
+            throw new IOException("Chatbot error: " + data);
+        }
+        if (data.startsWith("{")) {
+            append(tokenOf(data));
+        } else {
+            append(data);
+        }
+        return true;
+    }
+
+    private static String tokenOf(String json) throws IOException {
+        String token = "";
+        JsonReader in = new JsonReader(new StringReader(json));
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() != JsonToken.STRING) {
+                in.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "token":
+                case "delta":
+                case "text":
+                case "content":
+                    token = in.nextString();
+                    break;
+                case "error":
+                    throw new IOException("Chatbot error: " + in.nextString());
+                default:
+                    in.skipValue();
+            }
+        }
+        return token;
+    }
+
+    private static String fieldValue(String line, int nameLength) {
+        // A single space after the colon is not part of the value
+        int start = line.length() > nameLength && line.charAt(nameLength) == ' ' ? nameLength + 1 : nameLength;
+        return line.substring(start);
+    }
+
+    private void readChunks(Reader reader) throws IOException {
+        char[] buffer = new char[1024];
+        int read;
+        while (!canceled && (read = reader.read(buffer)) != -1) {
+            append(new String(buffer, 0, read));
+        }
+    }
+
+    private void append(String token) {
+        if (token.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            text.append(token);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        mainHandler.postDelayed(flush, THROTTLE_MS);
+    }
+
+    private void flush() {
+        String snapshot;
+        synchronized (this) {
+            flushScheduled = false;
+            snapshot = text.toString();
+        }
+        if (!canceled) {
+            listener.onText(snapshot);
+        }
+    }
+
+    private void deliverComplete() {
+        mainHandler.post(() -> {
+            if (canceled) {
+                return;
+            }
+            mainHandler.removeCallbacks(flush);
+            String snapshot;
+            synchronized (this) {
+                snapshot = text.toString();
+            }
+            listener.onComplete(snapshot);
+        });
+    }
+
+    private void deliverError(int code, @Nullable Throwable error) {
+        mainHandler.post(() -> {
+            if (!canceled) {
+                mainHandler.removeCallbacks(flush);
+                listener.onError(code, error);
+            }
+        });
+    }
+}
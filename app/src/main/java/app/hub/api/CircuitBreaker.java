@@ -0,0 +1,235 @@
+package app.hub.api;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Fails calls fast while the backend is known to be down, instead of letting every screen
+ * sit through the connect and read timeouts.
+ *
+ * There is one circuit per host and endpoint group (see the table below). A circuit opens
+ * after FAILURE_THRESHOLD consecutive failures (an IOException or a 5xx response, counted
+ * after RetryPolicy has given up). While open, calls throw {@link CircuitOpenException}
+ * without touching the network. Once the open period is over a single call is let through
+ * as a probe (half-open): if it succeeds the circuit closes, if it fails the circuit opens
+ * again for twice as long, up to MAX_OPEN_MS.
+ *
+ * Every group's state is published through {@link #getState(String)} so screens can show
+ * that they are working offline.
+ */
+public class CircuitBreaker implements Interceptor {
+    private static final String TAG = "CircuitBreaker";
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    public static final String GROUP_AUTH = "auth";
+    public static final String GROUP_TICKETS = "tickets";
+    public static final String GROUP_CHAT = "chat";
+    public static final String GROUP_OTHER = "other";
+
+    static final int FAILURE_THRESHOLD = 5;
+    static final long OPEN_MS = 10_000;
+    static final long MAX_OPEN_MS = 120_000;
+
+    // Path prefix -> endpoint group; first match wins
+    private static final Map<String, String> GROUPS = new LinkedHashMap<>();
+
+    static {
+        GROUPS.put("/api/v1/login", GROUP_AUTH);
+        GROUPS.put("/api/v1/logout", GROUP_AUTH);
+        GROUPS.put("/api/v1/register", GROUP_AUTH);
+        GROUPS.put("/api/v1/send-verification-code", GROUP_AUTH);
+        GROUPS.put("/api/v1/verify-email", GROUP_AUTH);
+        GROUPS.put("/api/v1/user", GROUP_AUTH);
+        GROUPS.put("/api/v1/tickets", GROUP_TICKETS);
+        GROUPS.put("/api/v1/chatbot", GROUP_CHAT);
+    }
+
+    /**
+     * Thrown instead of making the call while the circuit is open.
+     */
+    public static class CircuitOpenException extends IOException {
+        private final long retryInMillis;
+
+        CircuitOpenException(String circuit, long retryInMillis) {
+            super("Server unreachable (" + circuit + "), not retrying for " + retryInMillis / 1000 + " s");
+            this.retryInMillis = retryInMillis;
+        }
+
+        public long getRetryInMillis() {
+            return retryInMillis;
+        }
+    }
+
+    private static final class Circuit {
+        final String group;
+        State state = State.CLOSED;
+        int failures;
+        long openMillis = OPEN_MS;
+        long openUntil;
+        // The one call let through while HALF_OPEN; results of any other call are ignored then
+        Object probe;
+
+        Circuit(String group) {
+            this.group = group;
+        }
+    }
+
+    // Guarded by this
+    private final Map<String, Circuit> circuits = new HashMap<>();
+    private final Map<String, MutableLiveData<State>> states = new HashMap<>();
+
+    public CircuitBreaker() {
+        states.put(GROUP_AUTH, new MutableLiveData<>(State.CLOSED));
+        states.put(GROUP_TICKETS, new MutableLiveData<>(State.CLOSED));
+        states.put(GROUP_CHAT, new MutableLiveData<>(State.CLOSED));
+        states.put(GROUP_OTHER, new MutableLiveData<>(State.CLOSED));
+    }
+
+    static String groupFor(String path) {
+        return PathPrefix.lookup(GROUPS, path, GROUP_OTHER);
+    }
+
+    /**
+     * State of an endpoint group (one of the GROUP_ constants).
+     */
+    public LiveData<State> getState(String group) {
+        MutableLiveData<State> state = states.get(group);
+        if (state == null) {
+            throw new IllegalArgumentException("Unknown endpoint group " + group);
+        }
+        return state;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String group = groupFor(request.url().encodedPath());
+        String key = request.url().host() + "/" + group;
+        Object attempt = new Object();
+        Circuit circuit = acquire(key, group, attempt);
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                abandon(circuit, attempt);
+            } else {
+                recordFailure(key, circuit, attempt);
+            }
+            throw e;
+        } catch (RuntimeException | Error e) {
+            // A bug in an interceptor or converter says nothing about the server, but a probe
+            // that ends here must still give up HALF_OPEN or the circuit never leaves it
+            abandon(circuit, attempt);
+            throw e;
+        }
+        if (response.code() >= 500) {
+            recordFailure(key, circuit, attempt);
+        } else {
+            // Any other answer, 4xx included, means the server is up
+            recordSuccess(key, circuit, attempt);
+        }
+        return response;
+    }
+
+    // Overridden by tests
+    long elapsedRealtime() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    private synchronized Circuit acquire(String key, String group, Object attempt) throws CircuitOpenException {
+        Circuit circuit = circuits.get(key);
+        if (circuit == null) {
+            circuit = new Circuit(group);
+            circuits.put(key, circuit);
+        }
+        long now = elapsedRealtime();
+        switch (circuit.state) {
+            case OPEN:
+                if (now < circuit.openUntil) {
+                    throw new CircuitOpenException(key, circuit.openUntil - now);
+                }
+                // This call is the probe; everything else keeps failing fast until it is back
+                circuit.probe = attempt;
+                setState(circuit, State.HALF_OPEN);
+                Log.d(TAG, key + " half-open, probing");
+                break;
+            case HALF_OPEN:
+                throw new CircuitOpenException(key, 0);
+            default:
+                break;
+        }
+        return circuit;
+    }
+
+    // A call that started before the circuit opened can still finish while the probe is out;
+    // only the probe decides how HALF_OPEN ends
+    private static boolean isStale(Circuit circuit, Object attempt) {
+        return circuit.state == State.HALF_OPEN && circuit.probe != attempt;
+    }
+
+    private synchronized void recordSuccess(String key, Circuit circuit, Object attempt) {
+        if (isStale(circuit, attempt)) {
+            return;
+        }
+        if (circuit.state != State.CLOSED) {
+            Log.i(TAG, key + " closed, server is back");
+        }
+        circuit.failures = 0;
+        circuit.openMillis = OPEN_MS;
+        setState(circuit, State.CLOSED);
+    }
+
+    private synchronized void recordFailure(String key, Circuit circuit, Object attempt) {
+        if (isStale(circuit, attempt)) {
+            return;
+        }
+        long now = elapsedRealtime();
+        if (circuit.state == State.HALF_OPEN) {
+            circuit.openMillis = Math.min(MAX_OPEN_MS, circuit.openMillis * 2);
+        } else if (++circuit.failures < FAILURE_THRESHOLD || circuit.state == State.OPEN) {
+            // Below the threshold, or a call that was already in flight when it opened
+            return;
+        }
+        circuit.openUntil = now + circuit.openMillis;
+        setState(circuit, State.OPEN);
+        Log.w(TAG, key + " open for " + circuit.openMillis + " ms");
+    }
+
+    private synchronized void abandon(Circuit circuit, Object attempt) {
+        if (circuit.state == State.HALF_OPEN && circuit.probe == attempt) {
+            // The probe was canceled or crashed, let the next call probe right away
+            circuit.openUntil = 0;
+            setState(circuit, State.OPEN);
+        }
+    }
+
+    private void setState(Circuit circuit, State state) {
+        if (circuit.state == state) {
+            return;
+        }
+        circuit.state = state;
+        if (state != State.HALF_OPEN) {
+            circuit.probe = null;
+        }
+        states.get(circuit.group).postValue(state);
+    }
+}
@@ -0,0 +1,193 @@
+package app.hub.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import app.hub.BuildConfig;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * Logs HTTP traffic to logcat. The level comes from BuildConfig.HTTP_LOG_LEVEL so release
+ * builds log nothing. Unlike HttpLoggingInterceptor at Level.BODY, bodies are only sampled
+ * up to BuildConfig.HTTP_LOG_BODY_MAX_BYTES, and multipart/binary bodies are never read,
+ * so photo uploads are not copied into memory just to be logged.
+ */
+public class HttpLogger implements Interceptor {
+    private static final String TAG = "HttpLogger";
+    private static final String REDACTED = "██";
+
+    public enum Level {
+        NONE,
+        BASIC,
+        HEADERS,
+        BODY
+    }
+
+    private final Level level;
+    private final long maxBodyBytes;
+
+    public HttpLogger(Level level, long maxBodyBytes) {
+        this.level = level;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * Logger configured for the current build type.
+     */
+    public static HttpLogger fromBuildConfig() {
+        return new HttpLogger(parseLevel(BuildConfig.HTTP_LOG_LEVEL), BuildConfig.HTTP_LOG_BODY_MAX_BYTES);
+    }
+
+    static Level parseLevel(String value) {
+        if (value == null) {
+            return Level.NONE;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.US));
+        } catch (IllegalArgumentException e) {
+            return Level.NONE;
+        }
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (level == Level.NONE) {
+            return chain.proceed(request);
+        }
+
+        boolean logHeaders = level == Level.HEADERS || level == Level.BODY;
+        boolean logBody = level == Level.BODY;
+
+        RequestBody requestBody = request.body();
+        StringBuilder out = new StringBuilder();
+        out.append("--> ").append(request.method()).append(' ').append(request.url());
+        if (requestBody != null && requestBody.contentLength() >= 0) {
+            out.append(" (").append(requestBody.contentLength()).append("-byte body)");
+        }
+        if (logHeaders) {
+            appendHeaders(out, request.headers());
+        }
+        if (logBody && requestBody != null) {
+            out.append('\n').append(describeRequestBody(requestBody));
+        }
+        Log.d(TAG, out.toString());
+
+        long startNs = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            Log.d(TAG, "<-- HTTP FAILED: " + e);
+            throw e;
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+
+        out.setLength(0);
+        out.append("<-- ").append(response.code());
+        if (!response.message().isEmpty()) {
+            out.append(' ').append(response.message());
+        }
+        out.append(' ').append(response.request().url()).append(" (").append(tookMs).append("ms)");
+        if (logHeaders) {
+            appendHeaders(out, response.headers());
+        }
+        if (logBody) {
+            out.append('\n').append(describeResponseBody(response));
+        }
+        Log.d(TAG, out.toString());
+
+        return response;
+    }
+
+    private void appendHeaders(StringBuilder out, Headers headers) {
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            out.append('\n').append(name).append(": ");
+            out.append(isSensitive(name) ? REDACTED : headers.value(i));
+        }
+    }
+
+    private static boolean isSensitive(String headerName) {
+        return "Authorization".equalsIgnoreCase(headerName)
+                || "Proxy-Authorization".equalsIgnoreCase(headerName)
+                || "Cookie".equalsIgnoreCase(headerName)
+                || "Set-Cookie".equalsIgnoreCase(headerName);
+    }
+
+    private String describeRequestBody(RequestBody body) throws IOException {
+        MediaType contentType = body.contentType();
+        long length = body.contentLength();
+        if (!isText(contentType)) {
+            return "(" + describeLength(length) + " " + contentType + " body omitted)";
+        }
+        if (body.isDuplex() || body.isOneShot()) {
+            return "(one-shot body omitted)";
+        }
+        if (length < 0 || length > maxBodyBytes) {
+            return "(" + describeLength(length) + " body omitted, over " + maxBodyBytes + " bytes)";
+        }
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return buffer.readString(charsetOf(contentType));
+    }
+
+    private String describeResponseBody(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return "(no body)";
+        }
+        MediaType contentType = body.contentType();
+        if (!isText(contentType)) {
+            return "(" + describeLength(body.contentLength()) + " " + contentType + " body omitted)";
+        }
+        if ("event-stream".equalsIgnoreCase(contentType.subtype())) {
+            // Peeking would wait for maxBodyBytes of events and stall the stream
+            return "(event stream omitted)";
+        }
+        // peekBody only buffers up to maxBodyBytes; the real body stream is left untouched
+        ResponseBody sample = response.peekBody(maxBodyBytes);
+        String text = sample.string();
+        long length = body.contentLength();
+        if (length < 0 || length > maxBodyBytes) {
+            return text + "\n(truncated to " + maxBodyBytes + " bytes)";
+        }
+        return text;
+    }
+
+    private static String describeLength(long length) {
+        return length >= 0 ? length + "-byte" : "unknown-length";
+    }
+
+    private static boolean isText(MediaType contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        if ("text".equals(contentType.type())) {
+            return true;
+        }
+        String subtype = contentType.subtype().toLowerCase(Locale.US);
+        return subtype.contains("json") || subtype.contains("xml") || subtype.equals("x-www-form-urlencoded");
+    }
+
+    private static Charset charsetOf(MediaType contentType) {
+        Charset charset = contentType != null ? contentType.charset(StandardCharsets.UTF_8) : null;
+        return charset != null ? charset : StandardCharsets.UTF_8;
+    }
+}
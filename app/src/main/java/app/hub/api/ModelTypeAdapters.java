@@ -0,0 +1,986 @@
+package app.hub.api;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.servicehub.model.ChatRequest;
+import com.servicehub.model.ChatResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written streaming adapters for every request and response model in app.hub.api and
+ * com.servicehub.model.
+ *
+ * Gson's default binding looks fields up by reflection the first time a type is used and
+ * creates instances through Unsafe; these adapters call constructors and setters directly
+ * and switch on the JSON name, so the first login/profile/ticket call after a cold start does
+ * not pay for reflection. JSON names are the field names Gson used before, so the wire format
+ * is unchanged. Value coercion follows Gson's defaults (numbers as strings, null for missing
+ * objects, 0/false for missing primitives) and unknown names are skipped.
+ *
+ * Responses are only read and requests only written. The other direction is never used by the
+ * app; if something does ask for it, it falls back to Gson's reflective adapter.
+ */
+public class ModelTypeAdapters implements TypeAdapterFactory {
+
+    private static final Map<Class<?>, Reader<?>> READERS = new HashMap<>();
+    private static final Map<Class<?>, Writer<?>> WRITERS = new HashMap<>();
+
+    interface Reader<T> {
+        T read(JsonReader in) throws IOException;
+    }
+
+    interface Writer<T> {
+        void write(JsonWriter out, T value) throws IOException;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        Reader<T> reader = (Reader<T>) READERS.get(raw);
+        Writer<T> writer = (Writer<T>) WRITERS.get(raw);
+        if (reader == null && writer == null) {
+            return null;
+        }
+        return new ModelAdapter<>(this, gson, type, reader, writer);
+    }
+
+    /**
+     * Hand-written side where there is one, lazily created reflective delegate for the other.
+     */
+    private static final class ModelAdapter<T> extends TypeAdapter<T> {
+        private final TypeAdapterFactory skipPast;
+        private final Gson gson;
+        private final TypeToken<T> type;
+        private final Reader<T> reader;
+        private final Writer<T> writer;
+        private volatile TypeAdapter<T> delegate;
+
+        ModelAdapter(TypeAdapterFactory skipPast, Gson gson, TypeToken<T> type, Reader<T> reader, Writer<T> writer) {
+            this.skipPast = skipPast;
+            this.gson = gson;
+            this.type = type;
+            this.reader = reader;
+            this.writer = writer;
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (reader == null) {
+                return delegate().read(in);
+            }
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return reader.read(in);
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (writer == null) {
+                delegate().write(out, value);
+                return;
+            }
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            writer.write(out, value);
+        }
+
+        private TypeAdapter<T> delegate() {
+            TypeAdapter<T> adapter = delegate;
+            if (adapter == null) {
+                adapter = gson.getDelegateAdapter(skipPast, type);
+                delegate = adapter;
+            }
+            return adapter;
+        }
+    }
+
+    /**
+     * Reads a JSON object into a fresh instance, field by field.
+     */
+    abstract static class ObjectReader<T> implements Reader<T> {
+        abstract T create();
+
+        /**
+         * Reads the value of {@code name}; returns false if the name is unknown.
+         */
+        abstract boolean field(JsonReader in, String name, T value) throws IOException;
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            T value = create();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!field(in, in.nextName(), value)) {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+
+        // Nested objects: null stays null like with Gson
+        final T readNullable(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return read(in);
+        }
+    }
+
+    // --- Value helpers, matching Gson's default coercion -----------------------------------
+
+    static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        // Also accepts numbers
+        return in.nextString();
+    }
+
+    static int nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        // Also accepts numeric strings
+        return in.nextInt();
+    }
+
+    static boolean nextBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return false;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        if (token == JsonToken.NUMBER) {
+            // Laravel sometimes serialises tinyint columns as 0/1
+            return in.nextInt() != 0;
+        }
+        return in.nextBoolean();
+    }
+
+    static String[] nextStringArray(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(nextString(in));
+        }
+        in.endArray();
+        return values.toArray(new String[0]);
+    }
+
+    static List<Integer> nextIntList(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<Integer> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            // Integer elements stay null, as with reflective Gson, rather than becoming id 0
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                values.add(null);
+            } else {
+                values.add(in.nextInt());
+            }
+        }
+        in.endArray();
+        return values;
+    }
+
+    static <T> List<T> nextList(JsonReader in, ObjectReader<T> element) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<T> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(element.readNullable(in));
+        }
+        in.endArray();
+        return values;
+    }
+
+    // --- Simple success/message responses --------------------------------------------------
+
+    static final ObjectReader<CreateTicketResponse> CREATE_TICKET_RESPONSE = new ObjectReader<CreateTicketResponse>() {
+        @Override
+        CreateTicketResponse create() {
+            return new CreateTicketResponse();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, CreateTicketResponse value) throws IOException {
+            switch (name) {
+                case "success":
+                    value.setSuccess(nextBoolean(in));
+                    return true;
+                case "message":
+                    value.setMessage(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<LogoutResponse> LOGOUT_RESPONSE = new ObjectReader<LogoutResponse>() {
+        @Override
+        LogoutResponse create() {
+            return new LogoutResponse();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, LogoutResponse value) throws IOException {
+            switch (name) {
+                case "success":
+                    value.setSuccess(nextBoolean(in));
+                    return true;
+                case "message":
+                    value.setMessage(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<VerificationResponse> VERIFICATION_RESPONSE = new ObjectReader<VerificationResponse>() {
+        @Override
+        VerificationResponse create() {
+            return new VerificationResponse();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, VerificationResponse value) throws IOException {
+            switch (name) {
+                case "success":
+                    value.setSuccess(nextBoolean(in));
+                    return true;
+                case "message":
+                    value.setMessage(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    // --- Login -----------------------------------------------------------------------------
+
+    static final ObjectReader<LoginResponse.User> LOGIN_USER = new ObjectReader<LoginResponse.User>() {
+        @Override
+        LoginResponse.User create() {
+            return new LoginResponse.User();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, LoginResponse.User value) throws IOException {
+            switch (name) {
+                case "id":
+                    value.setId(nextInt(in));
+                    return true;
+                case "username":
+                    value.setUsername(nextString(in));
+                    return true;
+                case "firstName":
+                    value.setFirstName(nextString(in));
+                    return true;
+                case "lastName":
+                    value.setLastName(nextString(in));
+                    return true;
+                case "name":
+                    value.setName(nextString(in));
+                    return true;
+                case "email":
+                    value.setEmail(nextString(in));
+                    return true;
+                case "role":
+                    value.setRole(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<LoginResponse.Data> LOGIN_DATA = new ObjectReader<LoginResponse.Data>() {
+        @Override
+        LoginResponse.Data create() {
+            return new LoginResponse.Data();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, LoginResponse.Data value) throws IOException {
+            switch (name) {
+                case "user":
+                    value.setUser(LOGIN_USER.readNullable(in));
+                    return true;
+                case "token":
+                    value.setToken(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<LoginResponse> LOGIN_RESPONSE = new ObjectReader<LoginResponse>() {
+        @Override
+        LoginResponse create() {
+            return new LoginResponse();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, LoginResponse value) throws IOException {
+            switch (name) {
+                case "success":
+                    value.setSuccess(nextBoolean(in));
+                    return true;
+                case "message":
+                    value.setMessage(nextString(in));
+                    return true;
+                case "data":
+                    value.setData(LOGIN_DATA.readNullable(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    // --- Register --------------------------------------------------------------------------
+
+    static final ObjectReader<RegisterResponse.User> REGISTER_USER = new ObjectReader<RegisterResponse.User>() {
+        @Override
+        RegisterResponse.User create() {
+            return new RegisterResponse.User();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, RegisterResponse.User value) throws IOException {
+            switch (name) {
+                case "id":
+                    value.setId(nextInt(in));
+                    return true;
+                case "username":
+                    value.setUsername(nextString(in));
+                    return true;
+                case "firstName":
+                    value.setFirstName(nextString(in));
+                    return true;
+                case "lastName":
+                    value.setLastName(nextString(in));
+                    return true;
+                case "email":
+                    value.setEmail(nextString(in));
+                    return true;
+                case "role":
+                    value.setRole(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<RegisterResponse.Data> REGISTER_DATA = new ObjectReader<RegisterResponse.Data>() {
+        @Override
+        RegisterResponse.Data create() {
+            return new RegisterResponse.Data();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, RegisterResponse.Data value) throws IOException {
+            switch (name) {
+                case "user":
+                    value.setUser(REGISTER_USER.readNullable(in));
+                    return true;
+                case "token":
+                    value.setToken(nextString(in));
+                    return true;
+                case "requires_verification":
+                    value.setRequires_verification(nextBoolean(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<RegisterResponse.Errors> REGISTER_ERRORS = new ObjectReader<RegisterResponse.Errors>() {
+        @Override
+        RegisterResponse.Errors create() {
+            return new RegisterResponse.Errors();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, RegisterResponse.Errors value) throws IOException {
+            switch (name) {
+                case "email":
+                    value.setEmail(nextStringArray(in));
+                    return true;
+                case "password":
+                    value.setPassword(nextStringArray(in));
+                    return true;
+                case "username":
+                    value.setUsername(nextStringArray(in));
+                    return true;
+                case "firstName":
+                    value.setFirstName(nextStringArray(in));
+                    return true;
+                case "lastName":
+                    value.setLastName(nextStringArray(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<RegisterResponse> REGISTER_RESPONSE = new ObjectReader<RegisterResponse>() {
+        @Override
+        RegisterResponse create() {
+            return new RegisterResponse();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, RegisterResponse value) throws IOException {
+            switch (name) {
+                case "success":
+                    value.setSuccess(nextBoolean(in));
+                    return true;
+                case "message":
+                    value.setMessage(nextString(in));
+                    return true;
+                case "data":
+                    value.setData(REGISTER_DATA.readNullable(in));
+                    return true;
+                case "errors":
+                    value.setErrors(REGISTER_ERRORS.readNullable(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    // --- Verify email ----------------------------------------------------------------------
+
+    static final ObjectReader<VerifyEmailResponse.User> VERIFY_EMAIL_USER = new ObjectReader<VerifyEmailResponse.User>() {
+        @Override
+        VerifyEmailResponse.User create() {
+            return new VerifyEmailResponse.User();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, VerifyEmailResponse.User value) throws IOException {
+            switch (name) {
+                case "id":
+                    value.setId(nextInt(in));
+                    return true;
+                case "username":
+                    value.setUsername(nextString(in));
+                    return true;
+                case "firstName":
+                    value.setFirstName(nextString(in));
+                    return true;
+                case "lastName":
+                    value.setLastName(nextString(in));
+                    return true;
+                case "email":
+                    value.setEmail(nextString(in));
+                    return true;
+                case "role":
+                    value.setRole(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<VerifyEmailResponse.Data> VERIFY_EMAIL_DATA = new ObjectReader<VerifyEmailResponse.Data>() {
+        @Override
+        VerifyEmailResponse.Data create() {
+            return new VerifyEmailResponse.Data();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, VerifyEmailResponse.Data value) throws IOException {
+            switch (name) {
+                case "user":
+                    value.setUser(VERIFY_EMAIL_USER.readNullable(in));
+                    return true;
+                case "token":
+                    value.setToken(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<VerifyEmailResponse> VERIFY_EMAIL_RESPONSE = new ObjectReader<VerifyEmailResponse>() {
+        @Override
+        VerifyEmailResponse create() {
+            return new VerifyEmailResponse();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, VerifyEmailResponse value) throws IOException {
+            switch (name) {
+                case "success":
+                    value.setSuccess(nextBoolean(in));
+                    return true;
+                case "message":
+                    value.setMessage(nextString(in));
+                    return true;
+                case "data":
+                    value.setData(VERIFY_EMAIL_DATA.readNullable(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    // --- Current user ----------------------------------------------------------------------
+
+    static final ObjectReader<UserResponse.Data> USER_DATA = new ObjectReader<UserResponse.Data>() {
+        @Override
+        UserResponse.Data create() {
+            return new UserResponse.Data();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, UserResponse.Data value) throws IOException {
+            switch (name) {
+                case "id":
+                    value.setId(nextInt(in));
+                    return true;
+                case "username":
+                    value.setUsername(nextString(in));
+                    return true;
+                case "firstName":
+                    value.setFirstName(nextString(in));
+                    return true;
+                case "lastName":
+                    value.setLastName(nextString(in));
+                    return true;
+                case "name":
+                    value.setName(nextString(in));
+                    return true;
+                case "email":
+                    value.setEmail(nextString(in));
+                    return true;
+                case "role":
+                    value.setRole(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<UserResponse> USER_RESPONSE = new ObjectReader<UserResponse>() {
+        @Override
+        UserResponse create() {
+            return new UserResponse();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, UserResponse value) throws IOException {
+            switch (name) {
+                case "success":
+                    value.setSuccess(nextBoolean(in));
+                    return true;
+                case "data":
+                    value.setData(USER_DATA.readNullable(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    // --- Tickets ---------------------------------------------------------------------------
+
+    static final ObjectReader<TicketsResponse.User> TICKET_USER = new ObjectReader<TicketsResponse.User>() {
+        @Override
+        TicketsResponse.User create() {
+            return new TicketsResponse.User();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, TicketsResponse.User value) throws IOException {
+            switch (name) {
+                case "id":
+                    value.setId(nextInt(in));
+                    return true;
+                case "name":
+                    value.setName(nextString(in));
+                    return true;
+                case "email":
+                    value.setEmail(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<TicketsResponse.Status> TICKET_STATUS = new ObjectReader<TicketsResponse.Status>() {
+        @Override
+        TicketsResponse.Status create() {
+            return new TicketsResponse.Status();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, TicketsResponse.Status value) throws IOException {
+            switch (name) {
+                case "id":
+                    value.setId(nextInt(in));
+                    return true;
+                case "name":
+                    value.setName(nextString(in));
+                    return true;
+                case "color":
+                    value.setColor(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    // Shared by list entries and the single-ticket response, which extends them
+    static boolean ticketField(JsonReader in, String name, TicketsResponse.Ticket value) throws IOException {
+        switch (name) {
+            case "id":
+                value.setId(nextInt(in));
+                return true;
+            case "title":
+                value.setTitle(nextString(in));
+                return true;
+            case "description":
+                value.setDescription(nextString(in));
+                return true;
+            case "priority":
+                value.setPriority(nextString(in));
+                return true;
+            case "status":
+                value.setStatus(TICKET_STATUS.readNullable(in));
+                return true;
+            case "customer":
+                value.setCustomer(TICKET_USER.readNullable(in));
+                return true;
+            case "assigned_staff":
+                value.setAssigned_staff(TICKET_USER.readNullable(in));
+                return true;
+            case "comments_count":
+                value.setComments_count(nextInt(in));
+                return true;
+            case "created_at":
+                value.setCreated_at(nextString(in));
+                return true;
+            case "updated_at":
+                value.setUpdated_at(nextString(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static final ObjectReader<TicketsResponse.Ticket> TICKET = new ObjectReader<TicketsResponse.Ticket>() {
+        @Override
+        TicketsResponse.Ticket create() {
+            return new TicketsResponse.Ticket();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, TicketsResponse.Ticket value) throws IOException {
+            return ticketField(in, name, value);
+        }
+    };
+
+    static final ObjectReader<TicketsResponse.Meta> TICKETS_META = new ObjectReader<TicketsResponse.Meta>() {
+        @Override
+        TicketsResponse.Meta create() {
+            return new TicketsResponse.Meta();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, TicketsResponse.Meta value) throws IOException {
+            switch (name) {
+                case "current_page":
+                    value.setCurrent_page(nextInt(in));
+                    return true;
+                case "last_page":
+                    value.setLast_page(nextInt(in));
+                    return true;
+                case "total":
+                    value.setTotal(nextInt(in));
+                    return true;
+                case "per_page":
+                    value.setPer_page(nextInt(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<TicketsResponse.Data> TICKETS_DATA = new ObjectReader<TicketsResponse.Data>() {
+        @Override
+        TicketsResponse.Data create() {
+            return new TicketsResponse.Data();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, TicketsResponse.Data value) throws IOException {
+            switch (name) {
+                case "tickets":
+                    value.setTickets(nextList(in, TICKET));
+                    return true;
+                case "deleted_ids":
+                    value.setDeleted_ids(nextIntList(in));
+                    return true;
+                case "meta":
+                    value.setMeta(TICKETS_META.readNullable(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<TicketsResponse> TICKETS_RESPONSE = new ObjectReader<TicketsResponse>() {
+        @Override
+        TicketsResponse create() {
+            return new TicketsResponse();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, TicketsResponse value) throws IOException {
+            switch (name) {
+                case "success":
+                    value.setSuccess(nextBoolean(in));
+                    return true;
+                case "message":
+                    value.setMessage(nextString(in));
+                    return true;
+                case "data":
+                    value.setData(TICKETS_DATA.readNullable(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<TicketResponse.Comment> TICKET_COMMENT = new ObjectReader<TicketResponse.Comment>() {
+        @Override
+        TicketResponse.Comment create() {
+            return new TicketResponse.Comment();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, TicketResponse.Comment value) throws IOException {
+            switch (name) {
+                case "id":
+                    value.setId(nextInt(in));
+                    return true;
+                case "comment":
+                    value.setComment(nextString(in));
+                    return true;
+                case "user":
+                    value.setUser(TICKET_USER.readNullable(in));
+                    return true;
+                case "created_at":
+                    value.setCreated_at(nextString(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    static final ObjectReader<TicketResponse.Data> TICKET_DETAIL = new ObjectReader<TicketResponse.Data>() {
+        @Override
+        TicketResponse.Data create() {
+            return new TicketResponse.Data();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, TicketResponse.Data value) throws IOException {
+            if ("comments".equals(name)) {
+                value.setComments(nextList(in, TICKET_COMMENT));
+                return true;
+            }
+            return ticketField(in, name, value);
+        }
+    };
+
+    static final ObjectReader<TicketResponse> TICKET_RESPONSE = new ObjectReader<TicketResponse>() {
+        @Override
+        TicketResponse create() {
+            return new TicketResponse();
+        }
+
+        @Override
+        boolean field(JsonReader in, String name, TicketResponse value) throws IOException {
+            switch (name) {
+                case "success":
+                    value.setSuccess(nextBoolean(in));
+                    return true;
+                case "message":
+                    value.setMessage(nextString(in));
+                    return true;
+                case "data":
+                    value.setData(TICKET_DETAIL.readNullable(in));
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    };
+
+    // --- Chat ------------------------------------------------------------------------------
+
+    // Immutable: collect the fields, then construct
+    static final Reader<ChatResponse> CHAT_RESPONSE = in -> {
+        String reply = null;
+        String method = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "reply":
+                    reply = nextString(in);
+                    break;
+                case "method":
+                    method = nextString(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new ChatResponse(reply, method);
+    };
+
+    // --- Requests --------------------------------------------------------------------------
+
+    static final Writer<LoginRequest> LOGIN_REQUEST = (out, value) -> {
+        out.beginObject();
+        out.name("email").value(value.getEmail());
+        out.name("password").value(value.getPassword());
+        out.endObject();
+    };
+
+    static final Writer<RegisterRequest> REGISTER_REQUEST = (out, value) -> {
+        out.beginObject();
+        out.name("username").value(value.getUsername());
+        out.name("firstName").value(value.getFirstName());
+        out.name("lastName").value(value.getLastName());
+        out.name("email").value(value.getEmail());
+        out.name("password").value(value.getPassword());
+        out.name("password_confirmation").value(value.getPassword_confirmation());
+        out.name("role").value(value.getRole());
+        out.endObject();
+    };
+
+    static final Writer<VerificationRequest> VERIFICATION_REQUEST = (out, value) -> {
+        out.beginObject();
+        out.name("email").value(value.getEmail());
+        out.endObject();
+    };
+
+    static final Writer<VerifyEmailRequest> VERIFY_EMAIL_REQUEST = (out, value) -> {
+        out.beginObject();
+        out.name("email").value(value.getEmail());
+        out.name("code").value(value.getCode());
+        out.endObject();
+    };
+
+    static final Writer<CreateTicketRequest> CREATE_TICKET_REQUEST = (out, value) -> {
+        out.beginObject();
+        out.name("title").value(value.getTitle());
+        out.name("description").value(value.getDescription());
+        out.name("serviceType").value(value.getServiceType());
+        out.name("address").value(value.getAddress());
+        out.name("contact").value(value.getContact());
+        out.endObject();
+    };
+
+    static final Writer<ChatRequest> CHAT_REQUEST = (out, value) -> {
+        out.beginObject();
+        out.name("message").value(value.getMessage());
+        out.endObject();
+    };
+
+    static {
+        READERS.put(CreateTicketResponse.class, CREATE_TICKET_RESPONSE);
+        READERS.put(LogoutResponse.class, LOGOUT_RESPONSE);
+        READERS.put(VerificationResponse.class, VERIFICATION_RESPONSE);
+        READERS.put(LoginResponse.class, LOGIN_RESPONSE);
+        READERS.put(LoginResponse.Data.class, LOGIN_DATA);
+        READERS.put(LoginResponse.User.class, LOGIN_USER);
+        READERS.put(RegisterResponse.class, REGISTER_RESPONSE);
+        READERS.put(RegisterResponse.Data.class, REGISTER_DATA);
+        READERS.put(RegisterResponse.User.class, REGISTER_USER);
+        READERS.put(RegisterResponse.Errors.class, REGISTER_ERRORS);
+        READERS.put(VerifyEmailResponse.class, VERIFY_EMAIL_RESPONSE);
+        READERS.put(VerifyEmailResponse.Data.class, VERIFY_EMAIL_DATA);
+        READERS.put(VerifyEmailResponse.User.class, VERIFY_EMAIL_USER);
+        READERS.put(UserResponse.class, USER_RESPONSE);
+        READERS.put(UserResponse.Data.class, USER_DATA);
+        READERS.put(TicketsResponse.class, TICKETS_RESPONSE);
+        READERS.put(TicketsResponse.Data.class, TICKETS_DATA);
+        READERS.put(TicketsResponse.Ticket.class, TICKET);
+        READERS.put(TicketsResponse.Status.class, TICKET_STATUS);
+        READERS.put(TicketsResponse.User.class, TICKET_USER);
+        READERS.put(TicketsResponse.Meta.class, TICKETS_META);
+        READERS.put(TicketResponse.class, TICKET_RESPONSE);
+        READERS.put(TicketResponse.Data.class, TICKET_DETAIL);
+        READERS.put(TicketResponse.Comment.class, TICKET_COMMENT);
+        READERS.put(ChatResponse.class, CHAT_RESPONSE);
+
+        WRITERS.put(LoginRequest.class, LOGIN_REQUEST);
+        WRITERS.put(RegisterRequest.class, REGISTER_REQUEST);
+        WRITERS.put(VerificationRequest.class, VERIFICATION_REQUEST);
+        WRITERS.put(VerifyEmailRequest.class, VERIFY_EMAIL_REQUEST);
+        WRITERS.put(CreateTicketRequest.class, CREATE_TICKET_REQUEST);
+        WRITERS.put(ChatRequest.class, CHAT_REQUEST);
+    }
+}
@@ -0,0 +1,328 @@
+package app.hub.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import app.hub.util.DateUtils;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Per-endpoint timing, size and status statistics for every call made through ApiClient.
+ *
+ * An OkHttp EventListener is created per call and records DNS, connect, TLS, time to first
+ * byte (request headers sent to response headers received) and total call time into
+ * {@link Histogram}s, plus request and response body sizes and status codes. Endpoints are
+ * named after the Retrofit service method (e.g. "ApiService.getTicket"), so /tickets/12 and
+ * /tickets/13 land in the same bucket. Recording is lock-free and costs a few atomic adds
+ * per call.
+ *
+ * Shown in NetworkMetricsActivity (long-press the profile picture) and exported with
+ * {@link #toJson()}.
+ */
+public final class NetworkMetrics {
+    private static final NetworkMetrics INSTANCE = new NetworkMetrics();
+
+    public static final String PHASE_DNS = "dns";
+    public static final String PHASE_CONNECT = "connect";
+    public static final String PHASE_TLS = "tls";
+    public static final String PHASE_TTFB = "ttfb";
+    public static final String PHASE_TOTAL = "total";
+
+    /**
+     * Statistics for one endpoint. Durations are in microseconds.
+     */
+    public static final class Endpoint {
+        public final Histogram dns = new Histogram();
+        public final Histogram connect = new Histogram();
+        public final Histogram tls = new Histogram();
+        public final Histogram ttfb = new Histogram();
+        public final Histogram total = new Histogram();
+        public final Histogram responseSize = new Histogram();
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder requestBytes = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getRequestBytes() {
+            return requestBytes.sum();
+        }
+
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+
+        /**
+         * Status code -> count, sorted by code.
+         */
+        public Map<Integer, Long> getStatuses() {
+            Map<Integer, Long> copy = new TreeMap<>();
+            for (Map.Entry<Integer, LongAdder> entry : statuses.entrySet()) {
+                copy.put(entry.getKey(), entry.getValue().sum());
+            }
+            return copy;
+        }
+
+        /**
+         * Phase name (PHASE_ constants) -> duration histogram, in call order.
+         */
+        public Map<String, Histogram> phases() {
+            Map<String, Histogram> phases = new LinkedHashMap<>();
+            phases.put(PHASE_DNS, dns);
+            phases.put(PHASE_CONNECT, connect);
+            phases.put(PHASE_TLS, tls);
+            phases.put(PHASE_TTFB, ttfb);
+            phases.put(PHASE_TOTAL, total);
+            return phases;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    public static NetworkMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    private NetworkMetrics() {
+    }
+
+    public EventListener.Factory eventListenerFactory() {
+        return call -> new CallListener(this);
+    }
+
+    /**
+     * Endpoint name -> statistics, sorted by name.
+     */
+    public Map<String, Endpoint> getEndpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    public long getSinceMillis() {
+        return sinceMillis;
+    }
+
+    public void reset() {
+        endpoints.clear();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    Endpoint endpoint(String name) {
+        Endpoint endpoint = endpoints.get(name);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(name, key -> new Endpoint());
+        }
+        return endpoint;
+    }
+
+    static String endpointName(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            return invocation.method().getDeclaringClass().getSimpleName() + "." + invocation.method().getName();
+        }
+        // Not a Retrofit call: collapse numeric ids so the path stays a single endpoint
+        return request.method() + " " + request.url().encodedPath().replaceAll("/\\d+(?=/|$)", "/{id}");
+    }
+
+    /**
+     * Everything recorded since the last reset, as JSON. Durations are in milliseconds.
+     */
+    public String toJson() {
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("since").value(DateUtils.formatIsoMillis(sinceMillis));
+            writer.name("generated_at").value(DateUtils.formatIsoMillis(System.currentTimeMillis()));
+            writer.name("endpoints").beginObject();
+            for (Map.Entry<String, Endpoint> entry : getEndpoints().entrySet()) {
+                Endpoint endpoint = entry.getValue();
+                writer.name(entry.getKey()).beginObject();
+                writer.name("calls").value(endpoint.getCalls());
+                writer.name("failures").value(endpoint.getFailures());
+                writer.name("status").beginObject();
+                for (Map.Entry<Integer, Long> status : endpoint.getStatuses().entrySet()) {
+                    writer.name(String.valueOf(status.getKey())).value(status.getValue());
+                }
+                writer.endObject();
+                writer.name("request_bytes").value(endpoint.getRequestBytes());
+                writer.name("response_bytes").value(endpoint.getResponseBytes());
+                writer.name("phases_ms").beginObject();
+                for (Map.Entry<String, Histogram> phase : endpoint.phases().entrySet()) {
+                    writer.name(phase.getKey());
+                    writeHistogram(writer, phase.getValue(), 1000.0);
+                }
+                writer.endObject();
+                writer.name("response_size_bytes");
+                writeHistogram(writer, endpoint.responseSize, 1.0);
+                writer.endObject();
+            }
+            writer.endObject();
+            writer.endObject();
+        } catch (IOException e) {
+            // StringWriter does not throw
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    private static void writeHistogram(JsonWriter writer, Histogram histogram, double divisor) throws IOException {
+        writer.beginObject();
+        writer.name("count").value(histogram.getCount());
+        if (histogram.getCount() > 0) {
+            writer.name("p50").value(histogram.getPercentile(50) / divisor);
+            writer.name("p95").value(histogram.getPercentile(95) / divisor);
+            writer.name("p99").value(histogram.getPercentile(99) / divisor);
+            writer.name("max").value(histogram.getMax() / divisor);
+            writer.name("mean").value(histogram.getMean() / divisor);
+        }
+        writer.endObject();
+    }
+
+    /**
+     * One per call; OkHttp calls it from whichever thread runs the call, one event at a time.
+     * A retried call records the DNS, connect and TTFB time of every attempt.
+     */
+    private static final class CallListener extends EventListener {
+        private final NetworkMetrics metrics;
+        private Endpoint endpoint;
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long requestHeadersStart;
+        private int status;
+        private long requestBytes;
+        private long responseBytes;
+
+        CallListener(NetworkMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void callStart(@NonNull Call call) {
+            callStart = System.nanoTime();
+            endpoint = metrics.endpoint(endpointName(call.request()));
+        }
+
+        @Override
+        public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> addresses) {
+            endpoint.dns.record(micros(dnsStart));
+        }
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress address, @NonNull Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(@NonNull Call call) {
+            secureConnectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+            endpoint.tls.record(micros(secureConnectStart));
+        }
+
+        @Override
+        public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress address, @NonNull Proxy proxy,
+                               @Nullable Protocol protocol) {
+            // Includes TLS
+            endpoint.connect.record(micros(connectStart));
+        }
+
+        @Override
+        public void requestHeadersStart(@NonNull Call call) {
+            requestHeadersStart = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(@NonNull Call call, long byteCount) {
+            requestBytes += byteCount;
+        }
+
+        @Override
+        public void responseHeadersStart(@NonNull Call call) {
+            endpoint.ttfb.record(micros(requestHeadersStart));
+        }
+
+        @Override
+        public void responseHeadersEnd(@NonNull Call call, @NonNull Response response) {
+            status = response.code();
+        }
+
+        @Override
+        public void responseBodyEnd(@NonNull Call call, long byteCount) {
+            responseBytes += byteCount;
+        }
+
+        @Override
+        public void callEnd(@NonNull Call call) {
+            finish(false);
+        }
+
+        @Override
+        public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+            finish(true);
+        }
+
+        private void finish(boolean failed) {
+            endpoint.calls.increment();
+            if (failed) {
+                endpoint.failures.increment();
+            }
+            if (status != 0) {
+                LongAdder count = endpoint.statuses.get(status);
+                if (count == null) {
+                    count = endpoint.statuses.computeIfAbsent(status, key -> new LongAdder());
+                }
+                count.increment();
+            }
+            endpoint.total.record(micros(callStart));
+            endpoint.requestBytes.add(requestBytes);
+            endpoint.responseBytes.add(responseBytes);
+            if (!failed) {
+                endpoint.responseSize.record(responseBytes);
+            }
+        }
+
+        private static long micros(long startNanos) {
+            return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        }
+    }
+}
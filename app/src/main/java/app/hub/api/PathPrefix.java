@@ -0,0 +1,31 @@
+package app.hub.api;
+
+import java.util.Map;
+
+/**
+ * Lookups in the path prefix tables of the interceptors (cache rules, retry rules, endpoint
+ * groups, compression allowlist). A prefix matches whole path segments only, so /api/v1/user
+ * covers /api/v1/user and /api/v1/user/5 but not /api/v1/users.
+ */
+final class PathPrefix {
+
+    private PathPrefix() {
+    }
+
+    static boolean matches(String path, String prefix) {
+        return path.startsWith(prefix)
+                && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    /**
+     * The value of the first prefix in the table that matches the path, or fallback if none does.
+     */
+    static <T> T lookup(Map<String, T> table, String path, T fallback) {
+        for (Map.Entry<String, T> entry : table.entrySet()) {
+            if (matches(path, entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return fallback;
+    }
+}
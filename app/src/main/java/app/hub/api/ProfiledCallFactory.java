@@ -0,0 +1,88 @@
+package app.hub.api;
+
+import android.os.Process;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * Call.Factory for Retrofit that runs each call with the {@link CallProfile} of the service
+ * method it came from.
+ *
+ * Every profile gets its own OkHttpClient derived from the shared one, so they still share the
+ * connection pool, cache and interceptors and only differ in timeouts and dispatcher. Profiles
+ * are resolved once per method and cached.
+ *
+ * The bulk lane's dispatcher only limits enqueue(). A bulk call made with execute() runs on the
+ * caller's thread and is not counted; the ticket sync does that and bounds itself instead (one
+ * background-priority thread, see TicketRepository).
+ */
+class ProfiledCallFactory implements Call.Factory {
+    // Enough for an upload and a ticket download side by side
+    private static final int BULK_MAX_REQUESTS = 4;
+
+    private final Map<CallProfile, OkHttpClient> clients = new EnumMap<>(CallProfile.class);
+    private final Map<Method, CallProfile> profiles = new ConcurrentHashMap<>();
+
+    ProfiledCallFactory(OkHttpClient base) {
+        Dispatcher bulk = new Dispatcher(newBulkExecutor());
+        bulk.setMaxRequests(BULK_MAX_REQUESTS);
+        bulk.setMaxRequestsPerHost(BULK_MAX_REQUESTS);
+        for (CallProfile profile : CallProfile.values()) {
+            clients.put(profile, base.newBuilder()
+                    .connectTimeout(profile.connectTimeoutSeconds, TimeUnit.SECONDS)
+                    .readTimeout(profile.readTimeoutSeconds, TimeUnit.SECONDS)
+                    .writeTimeout(profile.writeTimeoutSeconds, TimeUnit.SECONDS)
+                    .dispatcher(profile.bulkLane ? bulk : base.dispatcher())
+                    .build());
+        }
+    }
+
+    @Override
+    public Call newCall(Request request) {
+        return clients.get(profileOf(request)).newCall(request);
+    }
+
+    CallProfile profileOf(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            return CallProfile.DEFAULT;
+        }
+        Method method = invocation.method();
+        CallProfile profile = profiles.get(method);
+        if (profile == null) {
+            CallProfile.Profile annotation = method.getAnnotation(CallProfile.Profile.class);
+            profile = annotation != null ? annotation.value() : CallProfile.DEFAULT;
+            profiles.put(method, profile);
+        }
+        return profile;
+    }
+
+    // Same shape as OkHttp's default dispatcher executor, with background-priority threads
+    private static ExecutorService newBulkExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threads = runnable -> {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, "OkHttp bulk " + count.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        };
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), threads);
+    }
+}
@@ -0,0 +1,90 @@
+package app.hub.api;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Request body that streams a file to the socket in fixed-size chunks and reports how many
+ * bytes have been written. Only one chunk is held in memory at a time, so peak memory is the
+ * same for a 50 KB thumbnail and a 10 MB photo.
+ *
+ * Progress callbacks are delivered on the main thread and throttled to whole-percent steps.
+ */
+public class ProgressRequestBody extends RequestBody {
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    public interface ProgressListener {
+        void onProgress(long bytesWritten, long contentLength);
+    }
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final MediaType contentType;
+    private final long contentLength;
+    private final File file;
+    @Nullable
+    private final ProgressListener listener;
+
+    private ProgressRequestBody(MediaType contentType, File file, @Nullable ProgressListener listener) {
+        this.contentType = contentType;
+        this.contentLength = file.length();
+        this.file = file;
+        this.listener = listener;
+    }
+
+    public static ProgressRequestBody fromFile(File file, MediaType contentType, @Nullable ProgressListener listener) {
+        return new ProgressRequestBody(contentType, file, listener);
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        long written = 0;
+        int lastPercent = -1;
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                sink.write(buffer, 0, read);
+                written += read;
+                if (listener != null && contentLength > 0) {
+                    int percent = (int) (written * 100 / contentLength);
+                    if (percent != lastPercent) {
+                        lastPercent = percent;
+                        postProgress(written);
+                    }
+                }
+            }
+        }
+        if (listener != null && contentLength <= 0) {
+            postProgress(written);
+        }
+    }
+
+    private void postProgress(long written) {
+        ProgressListener l = listener;
+        long total = contentLength;
+        mainHandler.post(() -> l.onProgress(written, total));
+    }
+}
@@ -0,0 +1,178 @@
+package app.hub.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.ByteString;
+import retrofit2.Invocation;
+import retrofit2.http.Streaming;
+
+/**
+ * Collapses identical GET requests that are in flight at the same time into one network call.
+ *
+ * Requests are identical when URL, Authorization and Accept match. The first one (the
+ * leader) goes to the network; the others wait for it and each get their own copy of its
+ * response. The body is only buffered when someone actually joined, so a lone request is
+ * passed through untouched. @Streaming methods are never coalesced.
+ *
+ * If the leader's call was canceled or crashed, the waiters send their own request instead of
+ * failing along with it. Installed after AuthInterceptor so the Authorization header is part of the key.
+ */
+public class RequestCoalescer implements Interceptor {
+    private static final String TAG = "RequestCoalescer";
+    // How often a waiter checks whether its own call was canceled
+    private static final long POLL_MILLIS = 250;
+
+    private static final class InFlight {
+        final CountDownLatch done = new CountDownLatch(1);
+        int waiters;
+        Response response;
+        ByteString body;
+        MediaType contentType;
+        IOException error;
+        // Leader was canceled; waiters go to the network themselves
+        boolean abandoned;
+    }
+
+    // Guarded by itself
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+
+    static String keyFor(Request request) {
+        return request.url() + "\n" + request.header(AuthInterceptor.HEADER_AUTHORIZATION) + "\n" + request.header("Accept");
+    }
+
+    static boolean isCoalescable(Request request) {
+        if (!"GET".equals(request.method())) {
+            return false;
+        }
+        Invocation invocation = request.tag(Invocation.class);
+        return invocation == null || !invocation.method().isAnnotationPresent(Streaming.class);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isCoalescable(request)) {
+            return chain.proceed(request);
+        }
+        String key = keyFor(request);
+        InFlight call;
+        boolean leader;
+        synchronized (inFlight) {
+            call = inFlight.get(key);
+            leader = call == null;
+            if (leader) {
+                call = new InFlight();
+                inFlight.put(key, call);
+            } else {
+                call.waiters++;
+            }
+        }
+        return leader ? lead(chain, key, call) : follow(chain, call);
+    }
+
+    private Response lead(Chain chain, String key, InFlight call) throws IOException {
+        try {
+            return fetch(chain, key, call);
+        } finally {
+            // Only this thread counts down, so still open means fetch() ended in a
+            // RuntimeException or Error; drop the entry and let the waiters go to the network
+            if (call.done.getCount() > 0) {
+                finish(key, call, null, null, null, null, true);
+            }
+        }
+    }
+
+    private Response fetch(Chain chain, String key, InFlight call) throws IOException {
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            finish(key, call, null, null, null, e, chain.call().isCanceled());
+            throw e;
+        }
+
+        boolean shared;
+        synchronized (inFlight) {
+            // No new waiters after this point; a later identical request starts a new call
+            inFlight.remove(key);
+            shared = call.waiters > 0;
+        }
+        if (!shared) {
+            call.done.countDown();
+            return response;
+        }
+
+        ResponseBody body = response.body();
+        ByteString bytes;
+        MediaType contentType;
+        try {
+            contentType = body != null ? body.contentType() : null;
+            bytes = body != null ? body.source().readByteString() : null;
+        } catch (IOException e) {
+            finish(key, call, null, null, null, e, chain.call().isCanceled());
+            throw e;
+        } finally {
+            if (body != null) {
+                body.close();
+            }
+        }
+        Log.d(TAG, "Shared " + chain.request().url().encodedPath() + " with " + call.waiters + " waiting calls");
+        finish(key, call, response, bytes, contentType, null, false);
+        return copy(response, chain.request(), bytes, contentType);
+    }
+
+    private Response follow(Chain chain, InFlight call) throws IOException {
+        try {
+            while (!call.done.await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a shared request", e);
+        }
+        if (call.abandoned) {
+            return chain.proceed(chain.request());
+        }
+        if (call.error != null) {
+            // Fresh exception so the stack trace belongs to this call
+            throw new IOException(call.error.getMessage(), call.error);
+        }
+        return copy(call.response, chain.request(), call.body, call.contentType);
+    }
+
+    private void finish(String key, InFlight call, Response response, ByteString body, MediaType contentType,
+                        IOException error, boolean abandoned) {
+        synchronized (inFlight) {
+            if (inFlight.get(key) == call) {
+                inFlight.remove(key);
+            }
+        }
+        call.response = response;
+        call.body = body;
+        call.contentType = contentType;
+        call.error = error;
+        call.abandoned = abandoned;
+        // Publishes the fields above to the waiters
+        call.done.countDown();
+    }
+
+    private static Response copy(Response response, Request request, ByteString body, MediaType contentType) {
+        return response.newBuilder()
+                .request(request)
+                .body(body != null ? ResponseBody.create(body, contentType) : null)
+                .build();
+    }
+}
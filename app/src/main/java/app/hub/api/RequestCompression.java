@@ -0,0 +1,154 @@
+package app.hub.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import app.hub.BuildConfig;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * Gzips large JSON request bodies for the endpoints in the table below.
+ *
+ * Compression is opt-in twice over: the endpoint has to be listed, and the host has to be
+ * known to read compressed bodies. A server advertises that by sending
+ * "Accept-Encoding: gzip" on its responses (RFC 7694), which is learned from any response
+ * that passes through here. Servers that can inflate request bodies but do not advertise it
+ * (Laravel does neither out of the box) are listed in BuildConfig.GZIP_REQUEST_HOSTS instead.
+ * If a compressed request is still answered with 415 Unsupported Media Type, the host is
+ * marked as unsupported and the request is sent again uncompressed.
+ *
+ * Bodies below the threshold, non-JSON bodies (multipart photo uploads are already
+ * compressed) and one-shot bodies are left alone. The body is compressed into memory so the
+ * request keeps a Content-Length.
+ */
+public class RequestCompression implements Interceptor {
+    private static final String TAG = "RequestCompression";
+    private static final String GZIP = "gzip";
+
+    // Smaller bodies fit in a packet or two anyway and gzip's header would eat the gain
+    static final long MIN_BYTES = 1024;
+
+    // Method + path prefix of the endpoints whose bodies may be compressed
+    private static final Map<String, String> ALLOWLIST = new LinkedHashMap<>();
+
+    static {
+        // Ticket descriptions can be long; also covers future batch-sync bodies under tickets/
+        ALLOWLIST.put("/api/v1/tickets", "POST");
+        ALLOWLIST.put("/api/v1/chatbot", "POST");
+    }
+
+    // Host -> whether it reads gzip request bodies; absent until the server tells us
+    private final Map<String, Boolean> hostSupport = new ConcurrentHashMap<>();
+
+    /**
+     * @param gzipHosts hosts known to read gzip request bodies without advertising it
+     */
+    RequestCompression(Collection<String> gzipHosts) {
+        for (String host : gzipHosts) {
+            hostSupport.put(host.toLowerCase(Locale.US), true);
+        }
+    }
+
+    /**
+     * Compression for this build, trusting the hosts in BuildConfig.GZIP_REQUEST_HOSTS.
+     */
+    static RequestCompression fromBuildConfig() {
+        return new RequestCompression(parseHosts(BuildConfig.GZIP_REQUEST_HOSTS));
+    }
+
+    static List<String> parseHosts(String commaSeparated) {
+        List<String> hosts = new ArrayList<>();
+        for (String host : commaSeparated.split(",")) {
+            if (!host.trim().isEmpty()) {
+                hosts.add(host.trim());
+            }
+        }
+        return hosts;
+    }
+
+    static boolean isAllowed(String method, String path) {
+        for (Map.Entry<String, String> entry : ALLOWLIST.entrySet()) {
+            if (PathPrefix.matches(path, entry.getKey()) && entry.getValue().equals(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String host = request.url().host();
+        if (!shouldCompress(request, host)) {
+            return learn(host, chain.proceed(request));
+        }
+
+        Response response = chain.proceed(compress(request));
+        if (response.code() == 415) {
+            Log.w(TAG, host + " rejected a gzip request body, sending uncompressed from now on");
+            hostSupport.put(host, false);
+            response.close();
+            return chain.proceed(request);
+        }
+        return learn(host, response);
+    }
+
+    private boolean shouldCompress(Request request, String host) throws IOException {
+        RequestBody body = request.body();
+        return body != null
+                && Boolean.TRUE.equals(hostSupport.get(host))
+                && request.header("Content-Encoding") == null
+                && !body.isOneShot()
+                && body.contentLength() >= MIN_BYTES
+                && isJson(body.contentType())
+                && isAllowed(request.method(), request.url().encodedPath());
+    }
+
+    private Response learn(String host, Response response) {
+        if (hostSupport.containsKey(host)) {
+            return response;
+        }
+        String acceptEncoding = response.header("Accept-Encoding");
+        if (acceptEncoding != null) {
+            for (String coding : acceptEncoding.split(",")) {
+                if (GZIP.equals(coding.trim().toLowerCase(Locale.US))) {
+                    hostSupport.put(host, true);
+                    break;
+                }
+            }
+        }
+        return response;
+    }
+
+    private static Request compress(Request request) throws IOException {
+        RequestBody body = request.body();
+        Buffer compressed = new Buffer();
+        try (BufferedSink gzip = Okio.buffer(new GzipSink(compressed))) {
+            body.writeTo(gzip);
+        }
+        return request.newBuilder()
+                .header("Content-Encoding", GZIP)
+                .method(request.method(), RequestBody.create(compressed.readByteString(), body.contentType()))
+                .build();
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return contentType != null && contentType.subtype().toLowerCase(Locale.US).contains("json");
+    }
+}
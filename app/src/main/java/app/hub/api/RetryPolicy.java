@@ -0,0 +1,188 @@
+package app.hub.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries calls that failed for a transient reason, so a flaky mobile connection does not
+ * immediately turn into an error Toast.
+ *
+ * A call is retried after an IOException or a 408/429/502/503/504 response, with "full
+ * jitter" exponential backoff (a random delay between 0 and BASE_DELAY_MS * 2^retry, capped
+ * at MAX_DELAY_MS). A Retry-After header on the response replaces the computed delay; if the
+ * server asks for more than MAX_RETRY_AFTER_MS the response is handed back instead.
+ *
+ * Only requests that are safe to send twice are retried: GET/HEAD/PUT/DELETE/OPTIONS, POSTs
+ * that carry an Idempotency-Key header, and the POST endpoints marked repeatable in the table
+ * below. Anything else (e.g. a chatbot message) is sent exactly once.
+ *
+ * Runs right after CircuitBreaker, so each attempt goes through auth, logging and compression
+ * again, and a whole retried call counts as one failure towards opening the circuit.
+ */
+public class RetryPolicy implements Interceptor {
+    private static final String TAG = "RetryPolicy";
+    static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+    static final long BASE_DELAY_MS = 500;
+    static final long MAX_DELAY_MS = 8_000;
+    static final long MAX_RETRY_AFTER_MS = 30_000;
+    // How often a backoff checks whether the call was cancelled
+    static final long CANCEL_POLL_MS = 100;
+
+    static final class Rule {
+        final int maxAttempts;
+        // Repeating the request has no extra effect even without an Idempotency-Key
+        final boolean repeatable;
+
+        Rule(int maxAttempts, boolean repeatable) {
+            this.maxAttempts = maxAttempts;
+            this.repeatable = repeatable;
+        }
+    }
+
+    private static final Rule DEFAULT_RULE = new Rule(DEFAULT_MAX_ATTEMPTS, false);
+
+    // Path prefix -> rule; first match wins, so list more specific paths first
+    private static final Map<String, Rule> RULES = new LinkedHashMap<>();
+
+    static {
+        // Logging in again just issues another token
+        RULES.put("/api/v1/login", new Rule(3, true));
+        // Checking a code twice gives the same answer
+        RULES.put("/api/v1/verify-email", new Rule(3, true));
+        // Would send the user a second email
+        RULES.put("/api/v1/send-verification-code", new Rule(1, false));
+        RULES.put("/api/v1/register", new Rule(1, false));
+        // Creation is retried with its Idempotency-Key; the outbox worker retries later on top
+        RULES.put("/api/v1/tickets", new Rule(3, false));
+        // Would post the message to the bot twice
+        RULES.put("/api/v1/chatbot", new Rule(1, false));
+    }
+
+    static Rule ruleFor(String path) {
+        return PathPrefix.lookup(RULES, path, DEFAULT_RULE);
+    }
+
+    static boolean isIdempotent(Request request, Rule rule) {
+        if (request.body() != null && request.body().isOneShot()) {
+            // Cannot be written a second time
+            return false;
+        }
+        switch (request.method()) {
+            case "GET":
+            case "HEAD":
+            case "PUT":
+            case "DELETE":
+            case "OPTIONS":
+                return true;
+            default:
+                return rule.repeatable || request.header(HEADER_IDEMPOTENCY_KEY) != null;
+        }
+    }
+
+    static boolean isTransient(int code) {
+        return code == 408 || code == 429 || code == 502 || code == 503 || code == 504;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Rule rule = ruleFor(request.url().encodedPath());
+        if (rule.maxAttempts <= 1 || !isIdempotent(request, rule)) {
+            return chain.proceed(request);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            boolean last = attempt >= rule.maxAttempts;
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (last || chain.call().isCanceled()) {
+                    throw e;
+                }
+                Log.d(TAG, request.method() + " " + request.url().encodedPath()
+                        + " failed (" + e.getMessage() + "), retry " + attempt);
+                sleep(chain.call(), backoffMillis(attempt));
+                continue;
+            }
+
+            if (last || !isTransient(response.code())) {
+                return response;
+            }
+            long delay = retryAfterMillis(response);
+            if (delay > MAX_RETRY_AFTER_MS) {
+                // Server is down for longer than anyone will wait on a spinner
+                return response;
+            }
+            if (delay < 0) {
+                delay = backoffMillis(attempt);
+            }
+            Log.d(TAG, request.method() + " " + request.url().encodedPath()
+                    + " got " + response.code() + ", retry " + attempt + " in " + delay + " ms");
+            response.close();
+            sleep(chain.call(), delay);
+        }
+    }
+
+    /**
+     * Full jitter: uniformly random between 0 and the exponential cap for this retry (1-based).
+     */
+    static long backoffMillis(int retry) {
+        long cap = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << Math.min(retry - 1, 16));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Delay asked for by Retry-After (delta-seconds or HTTP-date), or -1 if there is none.
+     */
+    static long retryAfterMillis(Response response) {
+        String value = response.header("Retry-After");
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : -1;
+        }
+    }
+
+    /**
+     * Waits out a backoff in short slices so that cancelling the call (e.g. leaving the
+     * screen) ends the wait within CANCEL_POLL_MS instead of after up to MAX_RETRY_AFTER_MS.
+     */
+    static void sleep(Call call, long millis) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        try {
+            while (true) {
+                if (call.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return;
+                }
+                // Rounded up, so the last slice does not end a fraction of a millisecond early
+                Thread.sleep(Math.min(TimeUnit.NANOSECONDS.toMillis(left) + 1, CANCEL_POLL_MS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+}
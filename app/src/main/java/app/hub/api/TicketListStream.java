@@ -0,0 +1,102 @@
+package app.hub.api;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+
+/**
+ * Reads a GET api/v1/tickets body while it is still downloading.
+ *
+ * The "tickets" array is decoded element by element and handed out in small batches as soon
+ * as each batch is complete, so the caller can store and show the first rows before the rest
+ * of the payload has arrived, and never holds the whole list in memory. Everything else in
+ * the body (success, message, meta, deleted_ids) is returned at the end in a TicketsResponse
+ * whose ticket list is left null. The body may be JSON or CBOR (see {@link WireFormat}).
+ */
+public class TicketListStream {
+
+    public interface BatchHandler {
+        void onBatch(List<TicketsResponse.Ticket> batch) throws IOException;
+    }
+
+    /**
+     * Consumes and closes the body.
+     */
+    public static TicketsResponse read(ResponseBody body, int batchSize, BatchHandler handler) throws IOException {
+        TicketsResponse response = new TicketsResponse();
+        try (JsonReader in = WireFormat.newReader(body)) {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success":
+                        response.setSuccess(ModelTypeAdapters.nextBoolean(in));
+                        break;
+                    case "message":
+                        response.setMessage(ModelTypeAdapters.nextString(in));
+                        break;
+                    case "data":
+                        response.setData(readData(in, batchSize, handler));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+        return response;
+    }
+
+    private static TicketsResponse.Data readData(JsonReader in, int batchSize, BatchHandler handler) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        TicketsResponse.Data data = new TicketsResponse.Data();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "tickets":
+                    readTickets(in, batchSize, handler);
+                    break;
+                case "deleted_ids":
+                    data.setDeleted_ids(ModelTypeAdapters.nextIntList(in));
+                    break;
+                case "meta":
+                    data.setMeta(ModelTypeAdapters.TICKETS_META.readNullable(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return data;
+    }
+
+    private static void readTickets(JsonReader in, int batchSize, BatchHandler handler) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return;
+        }
+        List<TicketsResponse.Ticket> batch = new ArrayList<>(batchSize);
+        in.beginArray();
+        while (in.hasNext()) {
+            TicketsResponse.Ticket ticket = ModelTypeAdapters.TICKET.readNullable(in);
+            if (ticket != null) {
+                batch.add(ticket);
+            }
+            if (batch.size() >= batchSize) {
+                handler.onBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        in.endArray();
+        if (!batch.isEmpty()) {
+            handler.onBatch(batch);
+        }
+    }
+}
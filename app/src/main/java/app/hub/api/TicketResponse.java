@@ -0,0 +1,85 @@
+package app.hub.api;
+
+import java.util.List;
+
+public class TicketResponse {
+    private boolean success;
+    private String message;
+    private Data data;
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Data getData() {
+        return data;
+    }
+
+    public void setData(Data data) {
+        this.data = data;
+    }
+
+    // Same fields as a list entry, plus the comments
+    public static class Data extends TicketsResponse.Ticket {
+        private List<Comment> comments;
+
+        public List<Comment> getComments() {
+            return comments;
+        }
+
+        public void setComments(List<Comment> comments) {
+            this.comments = comments;
+        }
+    }
+
+    public static class Comment {
+        private int id;
+        private String comment;
+        private TicketsResponse.User user;
+        private String created_at;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+
+        public void setComment(String comment) {
+            this.comment = comment;
+        }
+
+        public TicketsResponse.User getUser() {
+            return user;
+        }
+
+        public void setUser(TicketsResponse.User user) {
+            this.user = user;
+        }
+
+        public String getCreated_at() {
+            return created_at;
+        }
+
+        public void setCreated_at(String created_at) {
+            this.created_at = created_at;
+        }
+    }
+}
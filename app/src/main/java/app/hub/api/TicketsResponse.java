@@ -0,0 +1,256 @@
+package app.hub.api;
+
+import java.util.List;
+
+public class TicketsResponse {
+    private boolean success;
+    private String message;
+    private Data data;
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Data getData() {
+        return data;
+    }
+
+    public void setData(Data data) {
+        this.data = data;
+    }
+
+    public static class Data {
+        private List<Ticket> tickets;
+        // Tickets deleted since updated_since (only present on delta requests)
+        private List<Integer> deleted_ids;
+        private Meta meta;
+
+        public List<Ticket> getTickets() {
+            return tickets;
+        }
+
+        public void setTickets(List<Ticket> tickets) {
+            this.tickets = tickets;
+        }
+
+        public List<Integer> getDeleted_ids() {
+            return deleted_ids;
+        }
+
+        public void setDeleted_ids(List<Integer> deleted_ids) {
+            this.deleted_ids = deleted_ids;
+        }
+
+        public Meta getMeta() {
+            return meta;
+        }
+
+        public void setMeta(Meta meta) {
+            this.meta = meta;
+        }
+    }
+
+    public static class Ticket {
+        private int id;
+        private String title;
+        private String description;
+        private String priority;
+        private Status status;
+        private User customer;
+        private User assigned_staff;
+        private int comments_count;
+        private String created_at;
+        private String updated_at;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public void setPriority(String priority) {
+            this.priority = priority;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+
+        public User getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(User customer) {
+            this.customer = customer;
+        }
+
+        public User getAssigned_staff() {
+            return assigned_staff;
+        }
+
+        public void setAssigned_staff(User assigned_staff) {
+            this.assigned_staff = assigned_staff;
+        }
+
+        public int getComments_count() {
+            return comments_count;
+        }
+
+        public void setComments_count(int comments_count) {
+            this.comments_count = comments_count;
+        }
+
+        public String getCreated_at() {
+            return created_at;
+        }
+
+        public void setCreated_at(String created_at) {
+            this.created_at = created_at;
+        }
+
+        public String getUpdated_at() {
+            return updated_at;
+        }
+
+        public void setUpdated_at(String updated_at) {
+            this.updated_at = updated_at;
+        }
+    }
+
+    public static class Status {
+        private int id;
+        private String name;
+        private String color;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        public void setColor(String color) {
+            this.color = color;
+        }
+    }
+
+    public static class User {
+        private int id;
+        private String name;
+        private String email;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+    }
+
+    public static class Meta {
+        private int current_page;
+        private int last_page;
+        private int total;
+        private int per_page;
+
+        public int getCurrent_page() {
+            return current_page;
+        }
+
+        public void setCurrent_page(int current_page) {
+            this.current_page = current_page;
+        }
+
+        public int getLast_page() {
+            return last_page;
+        }
+
+        public void setLast_page(int last_page) {
+            this.last_page = last_page;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+
+        public int getPer_page() {
+            return per_page;
+        }
+
+        public void setPer_page(int per_page) {
+            this.per_page = per_page;
+        }
+    }
+}
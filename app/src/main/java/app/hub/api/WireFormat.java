@@ -0,0 +1,148 @@
+package app.hub.api;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import app.hub.BuildConfig;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Invocation;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Response body format negotiation.
+ *
+ * When BuildConfig.NEGOTIATE_CBOR is set, service methods marked {@link Negotiate} advertise
+ * "Accept: application/cbor, application/json;q=0.9". A server that can encode CBOR answers
+ * with the smaller binary body, anything else keeps answering JSON. Either way the response
+ * Content-Type decides how it is read, so JSON is always the fallback and both formats go
+ * through the same adapters in {@link ModelTypeAdapters}. Request bodies stay JSON.
+ *
+ * Only the bulk list downloads are marked: they are where the size matters, and their bodies,
+ * errors included, are only read through {@link #newReader} or the converter. Screens still
+ * read other error bodies as text, so those calls keep getting JSON.
+ */
+public final class WireFormat implements Interceptor {
+    static final String CBOR_SUBTYPE = "cbor";
+    static final String ACCEPT = "application/cbor, application/json;q=0.9";
+
+    /**
+     * Lets a service method's response (and error) body come back as CBOR.
+     */
+    @Documented
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Negotiate {
+    }
+
+    private final Map<Method, Boolean> negotiated = new ConcurrentHashMap<>();
+
+    @Override
+    public okhttp3.Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header("Accept") != null || !isNegotiated(request)) {
+            // The call asked for something specific, or reads its body as JSON text
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder().header("Accept", ACCEPT).build());
+    }
+
+    private boolean isNegotiated(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            return false;
+        }
+        Method method = invocation.method();
+        Boolean marked = negotiated.get(method);
+        if (marked == null) {
+            marked = method.isAnnotationPresent(Negotiate.class);
+            negotiated.put(method, marked);
+        }
+        return marked;
+    }
+
+    /**
+     * The Accept interceptor for this build, or null when negotiation is turned off.
+     */
+    @Nullable
+    static WireFormat fromBuildConfig() {
+        return BuildConfig.NEGOTIATE_CBOR ? new WireFormat() : null;
+    }
+
+    static boolean isCbor(@Nullable MediaType contentType) {
+        return contentType != null && CBOR_SUBTYPE.equalsIgnoreCase(contentType.subtype());
+    }
+
+    /**
+     * Reader for a body in whichever format the server picked. Closing it closes the body.
+     */
+    public static JsonReader newReader(ResponseBody body) {
+        if (isCbor(body.contentType())) {
+            return new CborReader(body.byteStream());
+        }
+        JsonReader reader = new JsonReader(body.charStream());
+        reader.setLenient(true);
+        return reader;
+    }
+
+    /**
+     * Gson converters that read CBOR bodies through the same type adapters and hand
+     * everything else to GsonConverterFactory.
+     */
+    static Converter.Factory converterFactory(Gson gson) {
+        return new ConverterFactory(gson);
+    }
+
+    private static final class ConverterFactory extends Converter.Factory {
+        private final Gson gson;
+        private final GsonConverterFactory json;
+
+        ConverterFactory(Gson gson) {
+            this.gson = gson;
+            this.json = GsonConverterFactory.create(gson);
+        }
+
+        @Override
+        public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+            Converter<ResponseBody, ?> jsonConverter = json.responseBodyConverter(type, annotations, retrofit);
+            TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(type));
+            return body -> {
+                if (!isCbor(body.contentType())) {
+                    return jsonConverter.convert(body);
+                }
+                try (JsonReader reader = new CborReader(body.byteStream())) {
+                    return adapter.read(reader);
+                } finally {
+                    body.close();
+                }
+            };
+        }
+
+        @Override
+        public Converter<?, RequestBody> requestBodyConverter(Type type, Annotation[] parameterAnnotations,
+                                                              Annotation[] methodAnnotations, Retrofit retrofit) {
+            return json.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+        }
+    }
+}
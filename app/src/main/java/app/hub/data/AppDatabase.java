@@ -0,0 +1,61 @@
+package app.hub.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * The app's local SQLite database. Each store owns its own table(s); schema changes bump
+ * DATABASE_VERSION and add a step to onUpgrade.
+ */
+public class AppDatabase extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "servicehub.db";
+    private static final int DATABASE_VERSION = 4;
+
+    private static volatile AppDatabase instance;
+
+    private AppDatabase(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    public static AppDatabase getInstance(Context context) {
+        AppDatabase db = instance;
+        if (db == null) {
+            synchronized (AppDatabase.class) {
+                db = instance;
+                if (db == null) {
+                    db = new AppDatabase(context);
+                    instance = db;
+                }
+            }
+        }
+        return db;
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // Lets the UI read while a background sync is writing
+        db.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        TicketOutbox.createTable(db);
+        TicketStore.createTables(db);
+        ChatHistory.createTable(db);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            TicketStore.createTables(db);
+        }
+        if (oldVersion < 3) {
+            ChatHistory.createTable(db);
+        }
+        if (oldVersion < 4) {
+            TicketStore.createScopeIndexes(db);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package app.hub.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.servicehub.model.Message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import app.hub.util.TokenManager;
+
+/**
+ * Chatbot conversation of the signed-in user, kept on the device so the chat dialog reopens
+ * with its history instead of an empty list.
+ *
+ * Messages are read newest first, one page at a time, with a keyset cursor on the row id;
+ * the dialog asks for the next older page when it is scrolled to the top. Each account only
+ * sees its own rows, and the oldest are dropped beyond KEEP_MESSAGES. Nothing is stored or
+ * read while signed out, so anonymous sessions never share a history.
+ *
+ * Loaded messages get the negated row id as their Message id, so they never collide with ids
+ * handed out by Message.nextId() for messages created in this process. Reads and writes run
+ * on one background thread; callbacks arrive on the main thread.
+ */
+public class ChatHistory {
+    public static final int PAGE_SIZE = 30;
+    // Older messages are dropped once an account has this many
+    static final int KEEP_MESSAGES = 1000;
+
+    static final String TABLE = "chat_messages";
+    private static final String COL_ID = "_id";
+    private static final String COL_OWNER = "owner";
+    private static final String COL_ROLE = "role";
+    private static final String COL_TEXT = "text";
+    // Epoch millis
+    private static final String COL_CREATED_AT = "created_at";
+
+    private static final String ROLE_USER = "user";
+    private static final String ROLE_ASSISTANT = "assistant";
+
+    public interface PageCallback {
+        /**
+         * messages are oldest first. Pass oldestRowId to the next loadOlder() call.
+         */
+        void onPage(List<Message> messages, long oldestRowId, boolean hasMore);
+    }
+
+    private static volatile ChatHistory instance;
+
+    private final AppDatabase database;
+    private final TokenManager tokenManager;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private ChatHistory(Context context) {
+        database = AppDatabase.getInstance(context.getApplicationContext());
+        tokenManager = new TokenManager(context.getApplicationContext());
+        executor.execute(this::trim);
+    }
+
+    public static ChatHistory getInstance(Context context) {
+        ChatHistory history = instance;
+        if (history == null) {
+            synchronized (ChatHistory.class) {
+                history = instance;
+                if (history == null) {
+                    history = new ChatHistory(context);
+                    instance = history;
+                }
+            }
+        }
+        return history;
+    }
+
+    static void createTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COL_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COL_OWNER + " TEXT COLLATE NOCASE, "
+                + COL_ROLE + " TEXT NOT NULL, "
+                + COL_TEXT + " TEXT, "
+                + COL_CREATED_AT + " INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE INDEX chat_messages_owner ON " + TABLE + " (" + COL_OWNER + ", " + COL_ID + ")");
+    }
+
+    /**
+     * The newest page when oldestRowId is Long.MAX_VALUE, otherwise the page before it.
+     */
+    public void loadOlder(long oldestRowId, PageCallback callback) {
+        String owner = tokenManager.getEmail();
+        if (owner == null) {
+            mainHandler.post(() -> callback.onPage(new ArrayList<>(), oldestRowId, false));
+            return;
+        }
+        executor.execute(() -> {
+            List<Message> page = new ArrayList<>(PAGE_SIZE);
+            long oldest = oldestRowId;
+            boolean hasMore;
+            // One extra row tells whether there is another page
+            try (Cursor c = database.getReadableDatabase().query(TABLE,
+                    new String[]{COL_ID, COL_ROLE, COL_TEXT},
+                    COL_OWNER + " = ? AND " + COL_ID + " < ?",
+                    new String[]{owner, String.valueOf(oldestRowId)},
+                    null, null, COL_ID + " DESC", String.valueOf(PAGE_SIZE + 1))) {
+                while (page.size() < PAGE_SIZE && c.moveToNext()) {
+                    oldest = c.getLong(0);
+                    page.add(new Message(-oldest, c.getString(2), ROLE_USER.equals(c.getString(1))));
+                }
+                hasMore = c.moveToNext();
+            }
+            Collections.reverse(page);
+            long cursor = oldest;
+            mainHandler.post(() -> callback.onPage(page, cursor, hasMore));
+        });
+    }
+
+    /**
+     * Stores a message of the current conversation. Empty texts, and anything said while
+     * signed out, are skipped.
+     */
+    public void add(Message message) {
+        if (message.getText() == null || message.getText().isEmpty()) {
+            return;
+        }
+        String owner = tokenManager.getEmail();
+        if (owner == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        executor.execute(() -> {
+            ContentValues values = new ContentValues();
+            values.put(COL_OWNER, owner);
+            values.put(COL_ROLE, message.isSentByUser() ? ROLE_USER : ROLE_ASSISTANT);
+            values.put(COL_TEXT, message.getText());
+            values.put(COL_CREATED_AT, now);
+            database.getWritableDatabase().insert(TABLE, null, values);
+        });
+    }
+
+    // Caps the current account at KEEP_MESSAGES; runs once per process, not on every insert
+    private void trim() {
+        SQLiteDatabase db = database.getWritableDatabase();
+        // Earlier versions stored signed-out messages under the literal owner "null"
+        db.delete(TABLE, COL_OWNER + " IS NULL OR " + COL_OWNER + " = 'null'", null);
+        String owner = tokenManager.getEmail();
+        if (owner == null) {
+            return;
+        }
+        db.execSQL("DELETE FROM " + TABLE + " WHERE " + COL_OWNER + " = ? AND "
+                + COL_ID + " <= (SELECT " + COL_ID + " FROM " + TABLE + " WHERE " + COL_OWNER + " = ?"
+                + " ORDER BY " + COL_ID + " DESC LIMIT 1 OFFSET " + KEEP_MESSAGES + ")",
+                new Object[]{owner, owner});
+    }
+}
@@ -0,0 +1,338 @@
+package app.hub.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import app.hub.R;
+
+/**
+ * Answers common chatbot questions on the device from the bundled FAQ (res/raw/chatbot_faq.json).
+ *
+ * Every FAQ entry is one document made of its example questions. The documents are tokenized
+ * into an inverted index once, in the background, and a question is scored against it with
+ * BM25. An answer is only returned when it is clearly the right one: the best entry has to
+ * cover most of the question's term weight and beat the runner-up by a margin. Negations are
+ * kept as a "not" token, and a negated question is only answered by an entry written for
+ * the negated case. Otherwise match() returns null and the question goes to the server as
+ * before.
+ *
+ * match() is a handful of map lookups over a few dozen postings, fast enough for the main thread.
+ */
+public class FaqMatcher {
+    private static final String TAG = "FaqMatcher";
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Share of the question's term weight the best entry has to contain
+    static final double MIN_COVERAGE = 0.6;
+    // How much the best entry has to outscore the second best
+    static final double MIN_MARGIN = 1.3;
+    // Coverage a negated question needs; see match()
+    static final double MIN_NEGATED_COVERAGE = 0.9;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "the", "i", "me", "my", "you", "your", "we", "our", "it", "this", "that", "there",
+            "do", "does", "did", "can", "could", "is", "are", "was", "be", "have", "has", "am", "get", "got",
+            // What is left of contractions after splitting on the apostrophe ("n't" is expanded first)
+            "t", "s", "m", "ll", "re", "ve", "d", "will",
+            "how", "what", "where", "when", "which", "who", "why",
+            "to", "of", "in", "on", "for", "with", "from", "at", "by", "and", "or", "if", "please"));
+
+    // Kept as one "not" token: "my ticket is not updating" must not read as "my ticket is updating"
+    private static final String NOT = "not";
+    private static final Set<String> NEGATIONS = new HashSet<>(Arrays.asList(
+            NOT, "no", "never", "cannot", "cant", "dont", "didnt", "doesnt", "isnt", "wont"));
+
+    public static final class Answer {
+        private final String id;
+        private final String text;
+        private final double confidence;
+
+        Answer(String id, String text, double confidence) {
+            this.id = id;
+            this.text = text;
+            this.confidence = confidence;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Share of the question's term weight found in the entry, 0-1.
+         */
+        public double getConfidence() {
+            return confidence;
+        }
+    }
+
+    private static final class Posting {
+        final int doc;
+        final int termFrequency;
+
+        Posting(int doc, int termFrequency) {
+            this.doc = doc;
+            this.termFrequency = termFrequency;
+        }
+    }
+
+    private static final class Index {
+        final String[] ids;
+        final String[] answers;
+        final int[] lengths;
+        final double averageLength;
+        final Map<String, Posting[]> postings;
+        final Map<String, Double> idf;
+        // Weight of a question word no entry contains, as if it were in exactly one
+        final double unknownIdf;
+
+        Index(String[] ids, String[] answers, int[] lengths, Map<String, Posting[]> postings) {
+            this.ids = ids;
+            this.answers = answers;
+            this.lengths = lengths;
+            this.postings = postings;
+            long total = 0;
+            for (int length : lengths) {
+                total += length;
+            }
+            int n = ids.length;
+            averageLength = n == 0 ? 1 : Math.max(1, (double) total / n);
+            idf = new HashMap<>();
+            for (Map.Entry<String, Posting[]> entry : postings.entrySet()) {
+                idf.put(entry.getKey(), idf(n, entry.getValue().length));
+            }
+            unknownIdf = idf(n, 1);
+        }
+
+        static double idf(int documents, int containing) {
+            return Math.log(1 + (documents - containing + 0.5) / (containing + 0.5));
+        }
+    }
+
+    private static volatile FaqMatcher instance;
+
+    // Null until the corpus is loaded; match() returns null until then
+    private volatile Index index;
+
+    private FaqMatcher(Context context) {
+        Context appContext = context.getApplicationContext();
+        new Thread(() -> load(appContext), TAG).start();
+    }
+
+    // Builds the index from the given corpus right away, for tests
+    FaqMatcher(Reader corpus) throws IOException {
+        index = read(corpus);
+    }
+
+    public static FaqMatcher getInstance(Context context) {
+        FaqMatcher matcher = instance;
+        if (matcher == null) {
+            synchronized (FaqMatcher.class) {
+                matcher = instance;
+                if (matcher == null) {
+                    matcher = new FaqMatcher(context);
+                    instance = matcher;
+                }
+            }
+        }
+        return matcher;
+    }
+
+    /**
+     * The local answer to this question, or null when the FAQ is not confident about one.
+     * Safe to call on the main thread.
+     */
+    @Nullable
+    public Answer match(String question) {
+        Index index = this.index;
+        if (index == null || index.ids.length == 0) {
+            return null;
+        }
+        Set<String> terms = new LinkedHashSet<>(tokenize(question));
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        double[] scores = new double[index.ids.length];
+        double[] covered = new double[index.ids.length];
+        double questionWeight = 0;
+        for (String term : terms) {
+            Posting[] postings = index.postings.get(term);
+            if (postings == null) {
+                questionWeight += index.unknownIdf;
+                continue;
+            }
+            double idf = index.idf.get(term);
+            questionWeight += idf;
+            for (Posting posting : postings) {
+                double tf = posting.termFrequency;
+                double norm = K1 * (1 - B + B * index.lengths[posting.doc] / index.averageLength);
+                scores[posting.doc] += idf * tf * (K1 + 1) / (tf + norm);
+                covered[posting.doc] += idf;
+            }
+        }
+
+        int best = -1;
+        double secondScore = 0;
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (best < 0 || scores[doc] > scores[best]) {
+                if (best >= 0) {
+                    secondScore = scores[best];
+                }
+                best = doc;
+            } else if (scores[doc] > secondScore) {
+                secondScore = scores[doc];
+            }
+        }
+        if (scores[best] <= 0) {
+            return null;
+        }
+        double coverage = covered[best] / questionWeight;
+        if (coverage < MIN_COVERAGE || scores[best] < secondScore * MIN_MARGIN) {
+            return null;
+        }
+        // A negation flips what is asked ("can't log out" is not "how do I log out"). Only answer
+        // when the entry was written for the negated case too and covers nearly all of the question
+        if (terms.contains(NOT) && (!contains(index, best, NOT) || coverage < MIN_NEGATED_COVERAGE)) {
+            return null;
+        }
+        return new Answer(index.ids[best], index.answers[best], coverage);
+    }
+
+    private static boolean contains(Index index, int doc, String term) {
+        Posting[] postings = index.postings.get(term);
+        if (postings != null) {
+            for (Posting posting : postings) {
+                if (posting.doc == doc) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static List<String> tokenize(String text) {
+        String lower = text.toLowerCase(Locale.US).replace('\u2019', '\'')
+                .replace("can't", "can not")
+                .replace("won't", "will not")
+                .replace("n't", " not");
+        List<String> tokens = new ArrayList<>();
+        for (String word : lower.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            tokens.add(NEGATIONS.contains(word) ? NOT : stem(word));
+        }
+        return tokens;
+    }
+
+    // Plural s only: enough to match "services" with "service" without mangling other words
+    private static String stem(String word) {
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private void load(Context context) {
+        long start = System.nanoTime();
+        Index loaded;
+        try (Reader in = new InputStreamReader(
+                context.getResources().openRawResource(R.raw.chatbot_faq), StandardCharsets.UTF_8)) {
+            loaded = read(in);
+        } catch (IOException | IllegalStateException e) {
+            Log.e(TAG, "Could not load the FAQ, every question goes to the server", e);
+            return;
+        }
+        index = loaded;
+        Log.d(TAG, "Indexed " + loaded.ids.length + " FAQ entries, " + loaded.postings.size() + " terms in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static Index read(Reader corpus) throws IOException {
+        List<String> ids = new ArrayList<>();
+        List<String> answers = new ArrayList<>();
+        List<List<String>> documents = new ArrayList<>();
+        JsonReader in = new JsonReader(corpus);
+        in.beginArray();
+        while (in.hasNext()) {
+            String id = null;
+            String answer = null;
+            List<String> tokens = new ArrayList<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        id = in.nextString();
+                        break;
+                    case "answer":
+                        answer = in.nextString();
+                        break;
+                    case "questions":
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            tokens.addAll(tokenize(in.nextString()));
+                        }
+                        in.endArray();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            if (answer != null && !tokens.isEmpty()) {
+                ids.add(id);
+                answers.add(answer);
+                documents.add(tokens);
+            }
+        }
+        in.endArray();
+
+        Map<String, List<Posting>> building = new HashMap<>();
+        int[] lengths = new int[documents.size()];
+        for (int doc = 0; doc < documents.size(); doc++) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String token : documents.get(doc)) {
+                Integer count = frequencies.get(token);
+                frequencies.put(token, count == null ? 1 : count + 1);
+            }
+            lengths[doc] = documents.get(doc).size();
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                List<Posting> list = building.get(entry.getKey());
+                if (list == null) {
+                    list = new ArrayList<>();
+                    building.put(entry.getKey(), list);
+                }
+                list.add(new Posting(doc, entry.getValue()));
+            }
+        }
+        Map<String, Posting[]> postings = new HashMap<>(building.size() * 2);
+        for (Map.Entry<String, List<Posting>> entry : building.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray(new Posting[0]));
+        }
+        return new Index(ids.toArray(new String[0]), answers.toArray(new String[0]), lengths, postings);
+    }
+}
@@ -0,0 +1,470 @@
+package app.hub.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import app.hub.api.ApiClient;
+import app.hub.api.ApiService;
+import app.hub.api.CreateTicketRequest;
+import app.hub.api.CreateTicketResponse;
+import app.hub.api.ProgressRequestBody;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import retrofit2.Call;
+
+/**
+ * Durable queue of ticket submissions.
+ *
+ * A ticket is written here before the first attempt to send it, together with a copy of its
+ * photo and a random idempotency key. The screen then tries to send it right away; if that
+ * does not finish (no network, server error, app killed) the row stays and
+ * {@link TicketOutboxWorker} sends it later with exponential backoff once a network is
+ * available. Every attempt for the same row uses the same Idempotency-Key header, so the
+ * server can recognise a retry of a request it already handled.
+ *
+ * Whoever sends a row claims it first by moving it from pending to sending: the screen when
+ * it stores the row, the worker right before each attempt. A drain that runs while the
+ * screen's own attempt is still in flight therefore skips the row instead of sending it a
+ * second time. Rows a dead process left in sending go back to pending on first use.
+ *
+ * The public methods are called from screens and do their file and database work on one
+ * background thread; enqueue() reports back on the main thread.
+ */
+public class TicketOutbox {
+    private static final String TAG = "TicketOutbox";
+
+    static final String TABLE = "ticket_outbox";
+    private static final String COL_ID = "_id";
+    private static final String COL_IDEMPOTENCY_KEY = "idempotency_key";
+    private static final String COL_KIND = "kind";
+    private static final String COL_TITLE = "title";
+    private static final String COL_DESCRIPTION = "description";
+    private static final String COL_SERVICE_TYPE = "service_type";
+    private static final String COL_ADDRESS = "address";
+    private static final String COL_CONTACT = "contact";
+    private static final String COL_IMAGE_PATH = "image_path";
+    private static final String COL_STATE = "state";
+    private static final String COL_ATTEMPTS = "attempts";
+    private static final String COL_LAST_ERROR = "last_error";
+    private static final String COL_CREATED_AT = "created_at";
+
+    private static final String STATE_PENDING = "pending";
+    // Claimed by the screen or a drain that is sending it right now
+    private static final String STATE_SENDING = "sending";
+    // Rejected by the server; written by earlier versions, now only cleaned up
+    private static final String STATE_FAILED = "failed";
+
+    // Delayed safety net scheduled with every new row
+    private static final String DELAYED_WORK_NAME = "ticket-outbox";
+    // Drain requested because an attempt just failed
+    private static final String IMMEDIATE_WORK_NAME = "ticket-outbox-now";
+    private static final String ATTACHMENT_DIR = "outbox";
+
+    // The screen sends immediately; the worker only picks a row up if that attempt did not finish
+    private static final long FOREGROUND_GRACE_SECONDS = 60;
+    private static final long BACKOFF_SECONDS = 30;
+
+    public enum Kind {
+        // CreateTicketRequest sent as JSON (user_createTicket)
+        JSON,
+        // Multipart form with an optional photo (ServiceSelectActivity)
+        MULTIPART
+    }
+
+    public interface EnqueueCallback {
+        void onQueued(PendingTicket ticket);
+
+        void onError(Exception e);
+    }
+
+    private static volatile TicketOutbox instance;
+
+    private final Context context;
+    private final AppDatabase database;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Guarded by this
+    private boolean recovered;
+
+    private TicketOutbox(Context context) {
+        this.context = context.getApplicationContext();
+        this.database = AppDatabase.getInstance(this.context);
+    }
+
+    public static TicketOutbox getInstance(Context context) {
+        TicketOutbox outbox = instance;
+        if (outbox == null) {
+            synchronized (TicketOutbox.class) {
+                outbox = instance;
+                if (outbox == null) {
+                    outbox = new TicketOutbox(context);
+                    instance = outbox;
+                }
+            }
+        }
+        return outbox;
+    }
+
+    static void createTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COL_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COL_IDEMPOTENCY_KEY + " TEXT NOT NULL UNIQUE, "
+                + COL_KIND + " TEXT NOT NULL, "
+                + COL_TITLE + " TEXT, "
+                + COL_DESCRIPTION + " TEXT, "
+                + COL_SERVICE_TYPE + " TEXT, "
+                + COL_ADDRESS + " TEXT, "
+                + COL_CONTACT + " TEXT, "
+                + COL_IMAGE_PATH + " TEXT, "
+                + COL_STATE + " TEXT NOT NULL, "
+                + COL_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_LAST_ERROR + " TEXT, "
+                + COL_CREATED_AT + " INTEGER NOT NULL)");
+    }
+
+    /**
+     * Stores a submission, already claimed for the caller's own attempt, and schedules a delayed
+     * background drain as a safety net. The photo, if any, is moved into app storage so it
+     * survives cache clearing.
+     */
+    public void enqueue(Kind kind, @Nullable String title, String description, String serviceType,
+                        String address, String contact, @Nullable File image, EnqueueCallback callback) {
+        executor.execute(() -> {
+            PendingTicket ticket;
+            try {
+                ticket = insert(kind, title, description, serviceType, address, contact, image);
+            } catch (IOException | RuntimeException e) {
+                mainHandler.post(() -> callback.onError(e));
+                return;
+            }
+            mainHandler.post(() -> callback.onQueued(ticket));
+        });
+    }
+
+    private PendingTicket insert(Kind kind, @Nullable String title, String description, String serviceType,
+                                 String address, String contact, @Nullable File image) throws IOException {
+        String imagePath = image != null ? moveToOutbox(image).getAbsolutePath() : null;
+        String key = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+
+        ContentValues values = new ContentValues();
+        values.put(COL_IDEMPOTENCY_KEY, key);
+        values.put(COL_KIND, kind.name());
+        values.put(COL_TITLE, title);
+        values.put(COL_DESCRIPTION, description);
+        values.put(COL_SERVICE_TYPE, serviceType);
+        values.put(COL_ADDRESS, address);
+        values.put(COL_CONTACT, contact);
+        values.put(COL_IMAGE_PATH, imagePath);
+        values.put(COL_STATE, STATE_SENDING);
+        values.put(COL_CREATED_AT, now);
+        long id = db().insertOrThrow(TABLE, null, values);
+
+        scheduleDrain(FOREGROUND_GRACE_SECONDS);
+        return new PendingTicket(id, key, kind, title, description, serviceType, address, contact, imagePath, 0);
+    }
+
+    /**
+     * Pending rows, oldest first.
+     */
+    List<PendingTicket> pending() {
+        List<PendingTicket> result = new ArrayList<>();
+        try (Cursor c = db().query(TABLE, null,
+                COL_STATE + " = ?", new String[]{STATE_PENDING}, null, null, COL_ID + " ASC")) {
+            while (c.moveToNext()) {
+                result.add(new PendingTicket(
+                        c.getLong(c.getColumnIndexOrThrow(COL_ID)),
+                        c.getString(c.getColumnIndexOrThrow(COL_IDEMPOTENCY_KEY)),
+                        Kind.valueOf(c.getString(c.getColumnIndexOrThrow(COL_KIND))),
+                        c.getString(c.getColumnIndexOrThrow(COL_TITLE)),
+                        c.getString(c.getColumnIndexOrThrow(COL_DESCRIPTION)),
+                        c.getString(c.getColumnIndexOrThrow(COL_SERVICE_TYPE)),
+                        c.getString(c.getColumnIndexOrThrow(COL_ADDRESS)),
+                        c.getString(c.getColumnIndexOrThrow(COL_CONTACT)),
+                        c.getString(c.getColumnIndexOrThrow(COL_IMAGE_PATH)),
+                        c.getInt(c.getColumnIndexOrThrow(COL_ATTEMPTS))));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The server accepted the ticket: drop the row and its photo.
+     */
+    public void markSent(PendingTicket ticket) {
+        executor.execute(() -> remove(ticket));
+    }
+
+    /**
+     * Transient failure on the screen: release the row and hand it to the worker.
+     */
+    public void markRetry(PendingTicket ticket, String error) {
+        executor.execute(() -> {
+            release(ticket, error);
+            scheduleDrain(0);
+        });
+    }
+
+    /**
+     * Claims a pending row for one attempt. False if someone else is sending it or it is gone.
+     */
+    boolean claim(PendingTicket ticket) {
+        ContentValues values = new ContentValues();
+        values.put(COL_STATE, STATE_SENDING);
+        return db().update(TABLE, values, COL_ID + " = ? AND " + COL_STATE + " = ?",
+                new String[]{String.valueOf(ticket.getId()), STATE_PENDING}) == 1;
+    }
+
+    /**
+     * True while any row is claimed, e.g. by a screen whose attempt has not finished yet.
+     */
+    boolean hasClaimed() {
+        try (Cursor c = db().rawQuery(
+                "SELECT 1 FROM " + TABLE + " WHERE " + COL_STATE + " = ? LIMIT 1", new String[]{STATE_SENDING})) {
+            return c.moveToFirst();
+        }
+    }
+
+    // Worker thread or executor
+    void remove(PendingTicket ticket) {
+        db().delete(TABLE, COL_ID + " = ?", new String[]{String.valueOf(ticket.getId())});
+        deleteAttachment(ticket);
+    }
+
+    /**
+     * The attempt failed but may work later: count it and put the row back to pending.
+     */
+    void release(PendingTicket ticket, String error) {
+        db().execSQL("UPDATE " + TABLE + " SET " + COL_STATE + " = ?, "
+                        + COL_ATTEMPTS + " = " + COL_ATTEMPTS + " + 1, " + COL_LAST_ERROR + " = ? WHERE " + COL_ID + " = ?",
+                new Object[]{STATE_PENDING, error, ticket.getId()});
+    }
+
+    /**
+     * The server rejected the ticket. Used by the worker, where nobody is around to fix the input;
+     * resending will not help, so the row and its photo are dropped.
+     */
+    void markFailed(PendingTicket ticket, String error) {
+        Log.e(TAG, "Dropping outbox ticket " + ticket.getId() + " after " + (ticket.getAttempts() + 1)
+                + " attempts: " + error);
+        remove(ticket);
+    }
+
+    /**
+     * The server rejected the ticket while the user is still on the form, so they can fix and resubmit.
+     */
+    public void discard(PendingTicket ticket) {
+        markSent(ticket);
+    }
+
+    /**
+     * Builds the createTicket call for a stored submission.
+     */
+    public Call<CreateTicketResponse> newCall(PendingTicket ticket, @Nullable ProgressRequestBody.ProgressListener listener) {
+        ApiService apiService = ApiClient.getApiService();
+        if (ticket.getKind() == Kind.JSON) {
+            CreateTicketRequest request = new CreateTicketRequest(ticket.getTitle(), ticket.getDescription(),
+                    ticket.getServiceType(), ticket.getAddress(), ticket.getContact());
+            return apiService.createTicket(ticket.getIdempotencyKey(), request);
+        }
+
+        MultipartBody.Part imagePart = null;
+        if (ticket.getImagePath() != null) {
+            File imageFile = new File(ticket.getImagePath());
+            if (imageFile.exists()) {
+                RequestBody requestFile = ProgressRequestBody.fromFile(imageFile, MediaType.parse("image/jpeg"), listener);
+                imagePart = MultipartBody.Part.createFormData("image", imageFile.getName(), requestFile);
+            }
+        }
+        MediaType text = MediaType.parse("text/plain");
+        return apiService.createTicket(
+                ticket.getIdempotencyKey(),
+                RequestBody.create(text, ticket.getDescription()),
+                RequestBody.create(text, ticket.getAddress()),
+                RequestBody.create(text, ticket.getContact()),
+                RequestBody.create(text, ticket.getServiceType()),
+                imagePart);
+    }
+
+    /**
+     * 4xx responses other than timeout/rate-limit/auth mean the request itself is wrong and
+     * sending it again will not help.
+     */
+    public static boolean isPermanentFailure(int code) {
+        return code >= 400 && code < 500 && code != 401 && code != 408 && code != 429;
+    }
+
+    void scheduleDrain(long delaySeconds) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(TicketOutboxWorker.class)
+                .setConstraints(constraints)
+                .setInitialDelay(delaySeconds, TimeUnit.SECONDS)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .build();
+        WorkManager workManager = WorkManager.getInstance(context);
+        if (delaySeconds > 0) {
+            // KEEP: one pending safety net is enough; later failures ask for an immediate drain
+            workManager.enqueueUniqueWork(DELAYED_WORK_NAME, ExistingWorkPolicy.KEEP, request);
+        } else {
+            // Queued behind a drain that is already running, which may have passed this row
+            workManager.enqueueUniqueWork(IMMEDIATE_WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+        }
+    }
+
+    // Once per process: rows left in sending by a process that died mid-attempt go back to pending,
+    // and rejected rows kept by earlier versions are deleted together with their photos
+    private synchronized SQLiteDatabase db() {
+        SQLiteDatabase db = database.getWritableDatabase();
+        if (!recovered) {
+            recovered = true;
+            deleteFailed(db);
+            ContentValues values = new ContentValues();
+            values.put(COL_STATE, STATE_PENDING);
+            int released = db.update(TABLE, values, COL_STATE + " = ?", new String[]{STATE_SENDING});
+            if (released > 0) {
+                Log.w(TAG, "Released " + released + " outbox tickets claimed by a previous process");
+            }
+        }
+        return db;
+    }
+
+    private File moveToOutbox(File source) throws IOException {
+        File dir = new File(context.getFilesDir(), ATTACHMENT_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File target = new File(dir, source.getName());
+        if (source.renameTo(target)) {
+            return target;
+        }
+        try (InputStream in = new FileInputStream(source); OutputStream out = new FileOutputStream(target)) {
+            byte[] buffer = new byte[8 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        source.delete();
+        return target;
+    }
+
+    private static void deleteFailed(SQLiteDatabase db) {
+        try (Cursor c = db.query(TABLE, new String[]{COL_IMAGE_PATH},
+                COL_STATE + " = ? AND " + COL_IMAGE_PATH + " IS NOT NULL", new String[]{STATE_FAILED},
+                null, null, null)) {
+            while (c.moveToNext()) {
+                File image = new File(c.getString(0));
+                if (image.exists() && !image.delete()) {
+                    Log.w(TAG, "Could not delete " + image);
+                }
+            }
+        }
+        db.delete(TABLE, COL_STATE + " = ?", new String[]{STATE_FAILED});
+    }
+
+    private static void deleteAttachment(PendingTicket ticket) {
+        if (ticket.getImagePath() != null && !new File(ticket.getImagePath()).delete()) {
+            Log.w(TAG, "Could not delete " + ticket.getImagePath());
+        }
+    }
+
+    /**
+     * A stored ticket submission.
+     */
+    public static class PendingTicket {
+        private final long id;
+        private final String idempotencyKey;
+        private final Kind kind;
+        private final String title;
+        private final String description;
+        private final String serviceType;
+        private final String address;
+        private final String contact;
+        private final String imagePath;
+        private final int attempts;
+
+        PendingTicket(long id, String idempotencyKey, Kind kind, String title, String description,
+                      String serviceType, String address, String contact, String imagePath, int attempts) {
+            this.id = id;
+            this.idempotencyKey = idempotencyKey;
+            this.kind = kind;
+            this.title = title;
+            this.description = description;
+            this.serviceType = serviceType;
+            this.address = address;
+            this.contact = contact;
+            this.imagePath = imagePath;
+            this.attempts = attempts;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getServiceType() {
+            return serviceType;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public String getContact() {
+            return contact;
+        }
+
+        public String getImagePath() {
+            return imagePath;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+    }
+}
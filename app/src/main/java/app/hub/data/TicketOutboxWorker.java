@@ -0,0 +1,94 @@
+package app.hub.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import app.hub.api.CreateTicketResponse;
+import app.hub.util.TokenManager;
+import retrofit2.Response;
+
+/**
+ * Sends everything left in the {@link TicketOutbox}. Runs only with a network connection;
+ * returning retry() lets WorkManager apply the exponential backoff configured in TicketOutbox.
+ */
+public class TicketOutboxWorker extends Worker {
+    private static final String TAG = "TicketOutboxWorker";
+
+    public TicketOutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (!new TokenManager(getApplicationContext()).isLoggedIn()) {
+            // Rows stay until someone logs in again
+            return Result.retry();
+        }
+
+        TicketOutbox outbox = TicketOutbox.getInstance(getApplicationContext());
+        Set<Long> attempted = new HashSet<>();
+        boolean needsRetry = false;
+
+        // Re-query after each pass so rows added while we were sending are picked up too
+        List<TicketOutbox.PendingTicket> batch = outbox.pending();
+        while (!batch.isEmpty() && !isStopped()) {
+            boolean progressed = false;
+            for (TicketOutbox.PendingTicket ticket : batch) {
+                if (isStopped()) {
+                    return Result.retry();
+                }
+                if (!attempted.add(ticket.getId())) {
+                    continue;
+                }
+                progressed = true;
+                if (!outbox.claim(ticket)) {
+                    // The screen or another drain is sending it right now
+                    continue;
+                }
+                needsRetry |= !send(outbox, ticket);
+            }
+            if (!progressed) {
+                break;
+            }
+            batch = outbox.pending();
+        }
+        // A row still claimed elsewhere comes back as pending if that attempt fails or its process dies
+        needsRetry |= outbox.hasClaimed();
+        return needsRetry ? Result.retry() : Result.success();
+    }
+
+    /**
+     * Returns false if the ticket should be retried later.
+     */
+    private boolean send(TicketOutbox outbox, TicketOutbox.PendingTicket ticket) {
+        try {
+            Response<CreateTicketResponse> response = outbox.newCall(ticket, null).execute();
+            if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                Log.d(TAG, "Sent outbox ticket " + ticket.getId() + " after " + (ticket.getAttempts() + 1) + " attempts");
+                outbox.remove(ticket);
+                return true;
+            }
+            if (response.isSuccessful() || TicketOutbox.isPermanentFailure(response.code())) {
+                Log.e(TAG, "Server rejected outbox ticket " + ticket.getId() + ": " + response.code());
+                outbox.markFailed(ticket, "HTTP " + response.code());
+                return true;
+            }
+            outbox.release(ticket, "HTTP " + response.code());
+            return false;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Outbox ticket " + ticket.getId() + " failed: " + e.getMessage());
+            outbox.release(ticket, String.valueOf(e.getMessage()));
+            return false;
+        }
+    }
+}
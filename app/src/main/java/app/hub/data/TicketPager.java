@@ -0,0 +1,312 @@
+package app.hub.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import app.hub.Ticket;
+import app.hub.util.TokenManager;
+
+/**
+ * Windowed view of one ticket scope in {@link TicketStore}, read page by page.
+ *
+ * size() is the full row count, but only the pages around the last bound position are held
+ * in memory; everything else reads as a null placeholder until it is scrolled near. Pages
+ * are fetched with a keyset cursor taken from the end of the page before, so reading deep
+ * into a list of tens of thousands of tickets costs the same as the first page.
+ *
+ * invalidate() diffs the old window against the new one on the executor too, so a sync only
+ * rebinds the rows that actually changed. A sync stores a page in several batches and each
+ * one invalidates; reloads are spaced at least MIN_RELOAD_INTERVAL_MS apart and a burst
+ * collapses into one trailing reload, so the count and diff are not redone per batch.
+ *
+ * Not thread safe: call it from the main thread only. Queries run on the executor passed in
+ * and results are delivered back on the main thread.
+ */
+public class TicketPager {
+    static final int PAGE_SIZE = 50;
+    // Pages loaded ahead of (and behind) the page being bound
+    static final int PREFETCH_PAGES = 2;
+    // Pages further than this from the one being bound are dropped
+    static final int KEEP_PAGES = PREFETCH_PAGES + 1;
+    // Invalidations closer together than this share one reload
+    static final long MIN_RELOAD_INTERVAL_MS = 300;
+
+    public interface Listener {
+        /**
+         * The list was reloaded (first load, sync, account switch). Dispatch the diff to the adapter.
+         */
+        void onChanged(DiffUtil.DiffResult diff, int size);
+
+        /**
+         * Placeholders in this range now have data.
+         */
+        void onRangeLoaded(int start, int count);
+    }
+
+    private final TicketRepository.Scope scope;
+    private final TicketStore store;
+    private final TokenManager tokenManager;
+    private final Executor executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final SparseArray<List<Ticket>> pages = new SparseArray<>();
+    // End of every page seen in this generation; two longs per page, kept so scrolling back
+    // to an evicted page can still use the keyset query
+    private final SparseArray<TicketStore.PageKey> pageEnds = new SparseArray<>();
+    private final SparseBooleanArray loading = new SparseBooleanArray();
+
+    private Listener listener;
+    private int size;
+    private int generation;
+    private int currentPage;
+    private String email;
+    // While a reload is being diffed the window must stay as it was snapshotted
+    private boolean resetPending;
+    // uptimeMillis of the last reload started
+    private long lastReloadAt = -MIN_RELOAD_INTERVAL_MS;
+    private boolean reloadQueued;
+    private final Runnable queuedReload = () -> {
+        reloadQueued = false;
+        invalidate();
+    };
+
+    TicketPager(TicketRepository.Scope scope, TicketStore store, TokenManager tokenManager, Executor executor) {
+        this.scope = scope;
+        this.store = store;
+        this.tokenManager = tokenManager;
+        this.executor = executor;
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The ticket at this position, or null if its page is not loaded yet. Either way the
+     * pages around it are requested, so call this from onBindViewHolder.
+     */
+    @Nullable
+    public Ticket get(int position) {
+        loadAround(position);
+        return peek(position);
+    }
+
+    /**
+     * Like {@link #get(int)} but without loading anything.
+     */
+    @Nullable
+    public Ticket peek(int position) {
+        return ticketAt(pages, position);
+    }
+
+    public void loadAround(int position) {
+        currentPage = position / PAGE_SIZE;
+        int lastPage = (size - 1) / PAGE_SIZE;
+        // Ahead first: that is the direction the user is usually scrolling
+        for (int page = currentPage; page <= Math.min(lastPage, currentPage + PREFETCH_PAGES); page++) {
+            request(page);
+        }
+        for (int page = currentPage - 1; page >= Math.max(0, currentPage - PREFETCH_PAGES); page--) {
+            request(page);
+        }
+        if (resetPending) {
+            return;
+        }
+        for (int i = pages.size() - 1; i >= 0; i--) {
+            if (isFar(pages.keyAt(i))) {
+                pages.removeAt(i);
+            }
+        }
+    }
+
+    /**
+     * Re-reads the count and the pages around the current position, e.g. after a sync.
+     * Right away if the last reload was long enough ago, otherwise once, a little later.
+     */
+    public void invalidate() {
+        if (reloadQueued) {
+            return;
+        }
+        long wait = lastReloadAt + MIN_RELOAD_INTERVAL_MS - SystemClock.uptimeMillis();
+        if (resetPending || wait > 0) {
+            // Still reloading or just reloaded: one more reload after that covers this change
+            reloadQueued = true;
+            mainHandler.postDelayed(queuedReload, wait > 0 ? wait : MIN_RELOAD_INTERVAL_MS);
+            return;
+        }
+        lastReloadAt = SystemClock.uptimeMillis();
+        reload();
+    }
+
+    private void reload() {
+        int gen = ++generation;
+        int anchor = currentPage;
+        SparseArray<List<Ticket>> oldPages = pages.clone();
+        int oldSize = size;
+        loading.clear();
+        resetPending = true;
+        executor.execute(() -> {
+            String owner = tokenManager.getEmail();
+            int count = store.count(scope, owner);
+            int lastPage = (count - 1) / PAGE_SIZE;
+            int from = Math.max(0, Math.min(anchor, lastPage) - PREFETCH_PAGES);
+            int to = Math.min(lastPage, anchor + PREFETCH_PAGES);
+            SparseArray<List<Ticket>> fresh = new SparseArray<>();
+            TicketStore.PageKey after = null;
+            for (int page = from; page <= to; page++) {
+                List<Ticket> rows = store.loadPage(scope, owner, after, page * PAGE_SIZE, PAGE_SIZE);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                fresh.put(page, rows);
+                after = TicketStore.PageKey.after(rows.get(rows.size() - 1));
+            }
+            DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new WindowDiff(oldPages, oldSize, fresh, count), false);
+            mainHandler.post(() -> onReset(gen, owner, count, fresh, diff));
+        });
+    }
+
+    /**
+     * Drops everything and stops delivering results, e.g. from onDestroyView.
+     */
+    public void release() {
+        generation++;
+        resetPending = false;
+        mainHandler.removeCallbacks(queuedReload);
+        reloadQueued = false;
+        listener = null;
+        pages.clear();
+        pageEnds.clear();
+        loading.clear();
+        size = 0;
+    }
+
+    private void request(int page) {
+        if (resetPending || pages.get(page) != null || loading.get(page)) {
+            return;
+        }
+        loading.put(page, true);
+        // Without the previous page's end (a jump, e.g. fast scroll) fall back to an offset query once
+        TicketStore.PageKey after = page > 0 ? pageEnds.get(page - 1) : null;
+        int gen = generation;
+        String owner = email;
+        executor.execute(() -> {
+            List<Ticket> rows = store.loadPage(scope, owner, after, page * PAGE_SIZE, PAGE_SIZE);
+            mainHandler.post(() -> onPageLoaded(gen, page, rows));
+        });
+    }
+
+    private void onPageLoaded(int gen, int page, List<Ticket> rows) {
+        if (gen != generation) {
+            return;
+        }
+        loading.delete(page);
+        if (rows.isEmpty()) {
+            return;
+        }
+        pageEnds.put(page, TicketStore.PageKey.after(rows.get(rows.size() - 1)));
+        if (isFar(page)) {
+            // Scrolled away while it was loading
+            return;
+        }
+        pages.put(page, rows);
+        int count = Math.min(rows.size(), size - page * PAGE_SIZE);
+        if (listener != null && count > 0) {
+            listener.onRangeLoaded(page * PAGE_SIZE, count);
+        }
+    }
+
+    private void onReset(int gen, String owner, int count, SparseArray<List<Ticket>> fresh, DiffUtil.DiffResult diff) {
+        if (gen != generation) {
+            return;
+        }
+        resetPending = false;
+        email = owner;
+        size = count;
+        pages.clear();
+        pageEnds.clear();
+        for (int i = 0; i < fresh.size(); i++) {
+            List<Ticket> rows = fresh.valueAt(i);
+            pages.put(fresh.keyAt(i), rows);
+            pageEnds.put(fresh.keyAt(i), TicketStore.PageKey.after(rows.get(rows.size() - 1)));
+        }
+        if (listener != null) {
+            listener.onChanged(diff, count);
+        }
+        // Whatever was scrolled to while the reload was running
+        if (count > 0) {
+            loadAround(Math.min(currentPage * PAGE_SIZE, count - 1));
+        }
+    }
+
+    private boolean isFar(int page) {
+        return Math.abs(page - currentPage) > KEEP_PAGES;
+    }
+
+    @Nullable
+    private static Ticket ticketAt(SparseArray<List<Ticket>> pages, int position) {
+        List<Ticket> page = pages.get(position / PAGE_SIZE);
+        int index = position % PAGE_SIZE;
+        return page != null && index < page.size() ? page.get(index) : null;
+    }
+
+    /**
+     * Old window against new window. Unloaded rows on both sides count as the same
+     * placeholder, so only the loaded pages produce change events. A placeholder and a
+     * ticket at the same position are the same row that got (or lost) its data, so loading
+     * a page is a change rather than a remove and an insert.
+     */
+    private static class WindowDiff extends DiffUtil.Callback {
+        private final SparseArray<List<Ticket>> oldPages;
+        private final int oldSize;
+        private final SparseArray<List<Ticket>> newPages;
+        private final int newSize;
+
+        WindowDiff(SparseArray<List<Ticket>> oldPages, int oldSize, SparseArray<List<Ticket>> newPages, int newSize) {
+            this.oldPages = oldPages;
+            this.oldSize = oldSize;
+            this.newPages = newPages;
+            this.newSize = newSize;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldSize;
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newSize;
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            Ticket oldTicket = ticketAt(oldPages, oldItemPosition);
+            Ticket newTicket = ticketAt(newPages, newItemPosition);
+            if (oldTicket == null || newTicket == null) {
+                return oldTicket == newTicket || oldItemPosition == newItemPosition;
+            }
+            return oldTicket.getId() == newTicket.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            Ticket oldTicket = ticketAt(oldPages, oldItemPosition);
+            Ticket newTicket = ticketAt(newPages, newItemPosition);
+            return oldTicket == null ? newTicket == null : oldTicket.equals(newTicket);
+        }
+    }
+}
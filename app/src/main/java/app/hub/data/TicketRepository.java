@@ -0,0 +1,262 @@
+package app.hub.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.hub.TicketRelations;
+import app.hub.api.ApiClient;
+import app.hub.api.TicketListStream;
+import app.hub.api.TicketResponse;
+import app.hub.api.TicketsResponse;
+import app.hub.util.DateUtils;
+import app.hub.util.TokenManager;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Ticket lists for MyTickets, AdminAllTickets and EmployeeAssignedTickets.
+ *
+ * Screens read through a {@link TicketPager} straight from {@link TicketStore}, so they render
+ * from disk without waiting for the network. refresh() asks the server only for tickets
+ * updated since that scope's watermark; every stored page of the response is announced
+ * through {@link #getChanges()}, so the first page of a first sync shows up as soon as it
+ * arrives. Syncs run on one background thread and never overlap; pagers read on another.
+ */
+public class TicketRepository {
+    private static final String TAG = "TicketRepository";
+
+    // Page size for the first full download; delta syncs rarely fill one page. Pages are
+    // streamed, so a large page costs no more memory than a small one
+    static final int SYNC_PAGE_SIZE = 500;
+    // Rows stored (and announced to the pagers) at a time while a page streams in
+    static final int STREAM_BATCH_SIZE = 50;
+
+    public enum Scope {
+        // Tickets the user created
+        MINE("mine"),
+        // Every ticket (admin)
+        ALL("all"),
+        // Tickets assigned to the user (employee)
+        ASSIGNED("assigned");
+
+        final String param;
+
+        Scope(String param) {
+            this.param = param;
+        }
+    }
+
+    private static volatile TicketRepository instance;
+
+    private final TokenManager tokenManager;
+    private final TicketStore store;
+    // Sync thread. getTickets() is executed here, not enqueued, so it bypasses the bulk
+    // dispatcher's limit; one thread at background priority keeps it to a single low-priority
+    // download at a time instead
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(() -> {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        runnable.run();
+    }, "TicketSync"));
+    // Page reads for every pager; separate so they are not stuck behind a long sync
+    private final ExecutorService readExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger version = new AtomicInteger();
+    private final MutableLiveData<Integer> changes = new MutableLiveData<>(0);
+
+    // Guarded by this
+    private final Set<Scope> queued = EnumSet.noneOf(Scope.class);
+
+    private TicketRepository(Context context) {
+        tokenManager = new TokenManager(context.getApplicationContext());
+        store = new TicketStore(context.getApplicationContext());
+    }
+
+    public static TicketRepository getInstance(Context context) {
+        TicketRepository repository = instance;
+        if (repository == null) {
+            synchronized (TicketRepository.class) {
+                repository = instance;
+                if (repository == null) {
+                    repository = new TicketRepository(context);
+                    instance = repository;
+                }
+            }
+        }
+        return repository;
+    }
+
+    /**
+     * A new pager over the stored tickets of a scope. Call invalidate() on it to load it,
+     * and again whenever {@link #getChanges()} emits.
+     */
+    public TicketPager newPager(Scope scope) {
+        return new TicketPager(scope, store, tokenManager, readExecutor);
+    }
+
+    /**
+     * Emits whenever stored tickets may have changed. All scopes share one table, so this
+     * is not per scope. The current value is delivered on observe, which makes it a
+     * convenient trigger for the first load too.
+     */
+    public LiveData<Integer> getChanges() {
+        return changes;
+    }
+
+    public interface RelationsCallback {
+        /**
+         * Called on the main thread: once with the stored customer and staff, and again with
+         * the comments if they were asked for and could be fetched.
+         */
+        void onRelations(TicketRelations relations);
+    }
+
+    /**
+     * Resolves the customer, assigned staff and (optionally) comments of a ticket.
+     * Customer and staff come from the store; comments need a GET api/v1/tickets/{id}.
+     */
+    public void loadRelations(long ticketId, boolean withComments, RelationsCallback callback) {
+        readExecutor.execute(() -> {
+            TicketRelations stored = store.loadRelations(ticketId);
+            TicketRelations relations = stored != null ? stored : new TicketRelations(null, null, null);
+            mainHandler.post(() -> {
+                callback.onRelations(relations);
+                if (withComments) {
+                    fetchComments(ticketId, relations, callback);
+                }
+            });
+        });
+    }
+
+    private void fetchComments(long ticketId, TicketRelations relations, RelationsCallback callback) {
+        ApiClient.getApiService().getTicket(ticketId).enqueue(new Callback<TicketResponse>() {
+            @Override
+            public void onResponse(@NonNull Call<TicketResponse> call, @NonNull Response<TicketResponse> response) {
+                TicketResponse body = response.body();
+                if (!response.isSuccessful() || body == null || !body.isSuccess() || body.getData() == null) {
+                    Log.e(TAG, "Could not load comments for ticket " + ticketId + ". Code: " + response.code());
+                    return;
+                }
+                List<TicketResponse.Comment> raw = body.getData().getComments();
+                List<TicketRelations.Comment> comments = new ArrayList<>(raw != null ? raw.size() : 0);
+                if (raw != null) {
+                    for (TicketResponse.Comment comment : raw) {
+                        TicketsResponse.User user = comment.getUser();
+                        comments.add(new TicketRelations.Comment(
+                                comment.getId(),
+                                comment.getComment(),
+                                user != null ? new TicketRelations.Person(user.getId(), user.getName(), user.getEmail()) : null,
+                                DateUtils.parseIsoMillis(comment.getCreated_at())));
+                    }
+                }
+                callback.onRelations(relations.withComments(comments));
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<TicketResponse> call, @NonNull Throwable t) {
+                Log.e(TAG, "Could not load comments for ticket " + ticketId + ": " + t.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Syncs the changes since the scope's watermark.
+     * A refresh already waiting for the same scope absorbs this one.
+     */
+    public void refresh(Scope scope) {
+        synchronized (this) {
+            if (!queued.add(scope)) {
+                return;
+            }
+        }
+        executor.execute(() -> {
+            synchronized (this) {
+                queued.remove(scope);
+            }
+            if (store.claimFor(tokenManager.isLoggedIn() ? tokenManager.getEmail() : null)) {
+                Log.d(TAG, "Account changed, cleared stored tickets");
+                notifyChanged();
+            }
+            if (tokenManager.isLoggedIn()) {
+                sync(scope);
+            }
+        });
+    }
+
+    private void notifyChanged() {
+        changes.postValue(version.incrementAndGet());
+    }
+
+    private void sync(Scope scope) {
+        long watermark = store.getWatermark(scope);
+        // The server compares with >=, so the boundary ticket comes back again; upserting it is harmless
+        String updatedSince = watermark > 0 ? DateUtils.formatIsoMillis(watermark) : null;
+        // Updated as batches are stored by the stream callback
+        long[] newest = {watermark};
+        int page = 1;
+
+        try {
+            while (true) {
+                Response<ResponseBody> response = ApiClient.getApiService()
+                        .getTickets(scope.param, updatedSince, page, SYNC_PAGE_SIZE)
+                        .execute();
+                ResponseBody raw = response.body();
+                if (!response.isSuccessful() || raw == null) {
+                    Log.e(TAG, "Ticket sync failed for " + scope + ". Code: " + response.code());
+                    if (raw == null && response.errorBody() != null) {
+                        response.errorBody().close();
+                    }
+                    return;
+                }
+
+                // Each batch is stored and announced while the rest of the page is still downloading
+                TicketsResponse body = TicketListStream.read(raw, STREAM_BATCH_SIZE, batch -> {
+                    newest[0] = Math.max(newest[0], store.apply(batch, null));
+                    notifyChanged();
+                });
+                if (!body.isSuccess() || body.getData() == null) {
+                    Log.e(TAG, "Ticket sync failed for " + scope + ": " + body.getMessage());
+                    return;
+                }
+
+                TicketsResponse.Data data = body.getData();
+                List<Integer> deletedIds = data.getDeleted_ids();
+                if (deletedIds != null && !deletedIds.isEmpty()) {
+                    store.apply(null, deletedIds);
+                    notifyChanged();
+                }
+
+                TicketsResponse.Meta meta = data.getMeta();
+                if (meta == null || meta.getCurrent_page() >= meta.getLast_page()) {
+                    break;
+                }
+                page++;
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Ticket sync failed for " + scope + ": " + e.getMessage());
+            return;
+        }
+
+        // Only advance once every page is stored, otherwise an interrupted sync would skip tickets
+        if (newest[0] > watermark) {
+            store.setWatermark(scope, newest[0]);
+        }
+    }
+}
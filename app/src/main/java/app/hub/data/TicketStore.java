@@ -0,0 +1,329 @@
+package app.hub.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import app.hub.Priority;
+import app.hub.Ticket;
+import app.hub.TicketRelations;
+import app.hub.TicketStatus;
+import app.hub.api.TicketsResponse;
+import app.hub.util.DateUtils;
+
+/**
+ * On-device copy of the tickets the signed-in user can see, keyed by server ticket id.
+ *
+ * Every list scope shares the one table and filters it locally, so a ticket that is
+ * reassigned or changes status only has to be downloaded once. Each scope keeps its own
+ * updated_at watermark in {@link #SYNC_TABLE}; rows and watermarks are only written from
+ * {@link TicketRepository}'s sync thread.
+ */
+class TicketStore {
+    static final String TABLE = "tickets";
+    private static final String COL_ID = "_id";
+    private static final String COL_TITLE = "title";
+    private static final String COL_DESCRIPTION = "description";
+    private static final String COL_PRIORITY = "priority";
+    private static final String COL_STATUS_ID = "status_id";
+    private static final String COL_STATUS_NAME = "status_name";
+    private static final String COL_STATUS_COLOR = "status_color";
+    private static final String COL_CUSTOMER_ID = "customer_id";
+    private static final String COL_CUSTOMER_NAME = "customer_name";
+    private static final String COL_CUSTOMER_EMAIL = "customer_email";
+    private static final String COL_STAFF_ID = "assigned_staff_id";
+    private static final String COL_STAFF_NAME = "assigned_staff_name";
+    private static final String COL_STAFF_EMAIL = "assigned_staff_email";
+    private static final String COL_COMMENTS_COUNT = "comments_count";
+    // Epoch millis
+    private static final String COL_CREATED_AT = "created_at";
+    private static final String COL_UPDATED_AT = "updated_at";
+
+    // Small key/value table: per-scope watermarks and the account the rows belong to
+    static final String SYNC_TABLE = "ticket_sync";
+    private static final String COL_KEY = "key";
+    private static final String COL_VALUE = "value";
+    private static final String KEY_OWNER = "owner";
+    private static final String KEY_WATERMARK_PREFIX = "watermark:";
+
+    // What a list row needs; the people columns are only read by loadRelations()
+    private static final String[] LIST_COLUMNS = {COL_ID, COL_TITLE, COL_DESCRIPTION,
+            COL_STATUS_ID, COL_STATUS_NAME, COL_STATUS_COLOR, COL_PRIORITY,
+            COL_CUSTOMER_ID, COL_STAFF_ID, COL_COMMENTS_COUNT, COL_CREATED_AT, COL_UPDATED_AT};
+
+    private final AppDatabase database;
+
+    TicketStore(Context context) {
+        this.database = AppDatabase.getInstance(context);
+    }
+
+    static void createTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COL_ID + " INTEGER PRIMARY KEY, "
+                + COL_TITLE + " TEXT, "
+                + COL_DESCRIPTION + " TEXT, "
+                + COL_PRIORITY + " TEXT, "
+                + COL_STATUS_ID + " INTEGER, "
+                + COL_STATUS_NAME + " TEXT, "
+                + COL_STATUS_COLOR + " TEXT, "
+                + COL_CUSTOMER_ID + " INTEGER, "
+                + COL_CUSTOMER_NAME + " TEXT, "
+                + COL_CUSTOMER_EMAIL + " TEXT COLLATE NOCASE, "
+                + COL_STAFF_ID + " INTEGER, "
+                + COL_STAFF_NAME + " TEXT, "
+                + COL_STAFF_EMAIL + " TEXT COLLATE NOCASE, "
+                + COL_COMMENTS_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_CREATED_AT + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_UPDATED_AT + " INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE INDEX tickets_updated_at ON " + TABLE + " (" + COL_UPDATED_AT + ")");
+        createScopeIndexes(db);
+        db.execSQL("CREATE TABLE " + SYNC_TABLE + " ("
+                + COL_KEY + " TEXT PRIMARY KEY, "
+                + COL_VALUE + " TEXT)");
+    }
+
+    /**
+     * The MINE and ASSIGNED scopes filter on an email and page by (updated_at, _id); these let
+     * both the count and the keyset query seek within one account's rows.
+     */
+    static void createScopeIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS tickets_customer_updated ON " + TABLE + " ("
+                + COL_CUSTOMER_EMAIL + ", " + COL_UPDATED_AT + ", " + COL_ID + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS tickets_staff_updated ON " + TABLE + " ("
+                + COL_STAFF_EMAIL + ", " + COL_UPDATED_AT + ", " + COL_ID + ")");
+    }
+
+    /**
+     * Number of tickets visible in the given scope.
+     */
+    int count(TicketRepository.Scope scope, @Nullable String email) {
+        String selection = selectionFor(scope);
+        String[] args = selection != null ? new String[]{String.valueOf(email)} : null;
+        try (Cursor c = database.getReadableDatabase().rawQuery("SELECT COUNT(*) FROM " + TABLE
+                + (selection != null ? " WHERE " + selection : ""), args)) {
+            return c.moveToFirst() ? c.getInt(0) : 0;
+        }
+    }
+
+    /**
+     * One page of the scope, most recently updated first.
+     *
+     * With {@code after} set this is a keyset query that seeks straight to the row following
+     * it through the scope's (email, updated_at, _id) index, or the updated_at index for ALL,
+     * so scrolling deep into a large list costs the same as the first page. Without it the
+     * page starts at {@code offset}, which is only used for the first page and for jumps the
+     * pager has no cursor for.
+     */
+    List<Ticket> loadPage(TicketRepository.Scope scope, @Nullable String email,
+                          @Nullable PageKey after, int offset, int limit) {
+        StringBuilder selection = new StringBuilder();
+        List<String> args = new ArrayList<>();
+        String scopeSelection = selectionFor(scope);
+        if (scopeSelection != null) {
+            selection.append(scopeSelection);
+            args.add(String.valueOf(email));
+        }
+        if (after != null) {
+            if (selection.length() > 0) {
+                selection.append(" AND ");
+            }
+            // (updated_at, _id) < (after.updatedAt, after.id); the first term keeps it an index range scan
+            selection.append(COL_UPDATED_AT).append(" <= ? AND (")
+                    .append(COL_UPDATED_AT).append(" < ? OR ").append(COL_ID).append(" < ?)");
+            args.add(String.valueOf(after.updatedAt));
+            args.add(String.valueOf(after.updatedAt));
+            args.add(String.valueOf(after.id));
+        }
+
+        String limitClause = after != null || offset == 0 ? String.valueOf(limit) : offset + "," + limit;
+        List<Ticket> result = new ArrayList<>(limit);
+        try (Cursor c = database.getReadableDatabase().query(TABLE, LIST_COLUMNS,
+                selection.length() > 0 ? selection.toString() : null, args.toArray(new String[0]),
+                null, null, COL_UPDATED_AT + " DESC, " + COL_ID + " DESC", limitClause)) {
+            while (c.moveToNext()) {
+                result.add(new Ticket(
+                        c.getLong(0),
+                        c.getString(1),
+                        c.getString(2),
+                        TicketStatus.of(c.getInt(3), c.getString(4), c.getString(5)),
+                        Priority.fromApi(c.getString(6)),
+                        c.getLong(7),
+                        c.isNull(8) ? Ticket.UNASSIGNED : c.getLong(8),
+                        c.getInt(9),
+                        c.getLong(10),
+                        c.getLong(11)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Customer and assigned staff of a stored ticket; comments are not stored.
+     * Null if the ticket is not in the store.
+     */
+    @Nullable
+    TicketRelations loadRelations(long ticketId) {
+        try (Cursor c = database.getReadableDatabase().query(TABLE,
+                new String[]{COL_CUSTOMER_ID, COL_CUSTOMER_NAME, COL_CUSTOMER_EMAIL,
+                        COL_STAFF_ID, COL_STAFF_NAME, COL_STAFF_EMAIL},
+                COL_ID + " = ?", new String[]{String.valueOf(ticketId)}, null, null, null)) {
+            if (!c.moveToFirst()) {
+                return null;
+            }
+            TicketRelations.Person customer = c.isNull(0) ? null
+                    : new TicketRelations.Person(c.getLong(0), c.getString(1), c.getString(2));
+            TicketRelations.Person staff = c.isNull(3) ? null
+                    : new TicketRelations.Person(c.getLong(3), c.getString(4), c.getString(5));
+            return new TicketRelations(customer, staff, null);
+        }
+    }
+
+    @Nullable
+    private static String selectionFor(TicketRepository.Scope scope) {
+        if (scope == TicketRepository.Scope.MINE) {
+            return COL_CUSTOMER_EMAIL + " = ?";
+        }
+        if (scope == TicketRepository.Scope.ASSIGNED) {
+            return COL_STAFF_EMAIL + " = ?";
+        }
+        return null;
+    }
+
+    /**
+     * Writes one page of a sync in a single transaction. Returns the newest updated_at in the page.
+     */
+    long apply(@Nullable List<TicketsResponse.Ticket> changed, @Nullable List<Integer> deletedIds) {
+        long newest = 0;
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (changed != null) {
+                ContentValues values = new ContentValues();
+                for (TicketsResponse.Ticket ticket : changed) {
+                    values.clear();
+                    toValues(ticket, values);
+                    db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                    newest = Math.max(newest, values.getAsLong(COL_UPDATED_AT));
+                }
+            }
+            if (deletedIds != null) {
+                for (Integer id : deletedIds) {
+                    db.delete(TABLE, COL_ID + " = ?", new String[]{String.valueOf(id)});
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return newest;
+    }
+
+    /**
+     * updated_at of the newest ticket seen by the last complete sync of this scope, or 0.
+     */
+    long getWatermark(TicketRepository.Scope scope) {
+        String value = get(KEY_WATERMARK_PREFIX + scope.name());
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    void setWatermark(TicketRepository.Scope scope, long updatedAtMs) {
+        put(database.getWritableDatabase(), KEY_WATERMARK_PREFIX + scope.name(), String.valueOf(updatedAtMs));
+    }
+
+    /**
+     * Wipes everything if the rows were synced for a different account.
+     * Returns true if anything was cleared.
+     */
+    boolean claimFor(@Nullable String owner) {
+        String current = get(KEY_OWNER);
+        if (owner == null ? current == null : owner.equalsIgnoreCase(current)) {
+            return false;
+        }
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE, null, null);
+            db.delete(SYNC_TABLE, null, null);
+            if (owner != null) {
+                put(db, KEY_OWNER, owner);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return current != null;
+    }
+
+    @Nullable
+    private String get(String key) {
+        try (Cursor c = database.getReadableDatabase().query(SYNC_TABLE, new String[]{COL_VALUE},
+                COL_KEY + " = ?", new String[]{key}, null, null, null)) {
+            return c.moveToFirst() ? c.getString(0) : null;
+        }
+    }
+
+    private static void put(SQLiteDatabase db, String key, String value) {
+        ContentValues values = new ContentValues();
+        values.put(COL_KEY, key);
+        values.put(COL_VALUE, value);
+        db.insertWithOnConflict(SYNC_TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static void toValues(TicketsResponse.Ticket ticket, ContentValues values) {
+        values.put(COL_ID, ticket.getId());
+        values.put(COL_TITLE, ticket.getTitle());
+        values.put(COL_DESCRIPTION, ticket.getDescription());
+        values.put(COL_PRIORITY, ticket.getPriority());
+        TicketsResponse.Status status = ticket.getStatus();
+        if (status != null) {
+            values.put(COL_STATUS_ID, status.getId());
+            values.put(COL_STATUS_NAME, status.getName());
+            values.put(COL_STATUS_COLOR, status.getColor());
+        }
+        TicketsResponse.User customer = ticket.getCustomer();
+        if (customer != null) {
+            values.put(COL_CUSTOMER_ID, customer.getId());
+            values.put(COL_CUSTOMER_NAME, customer.getName());
+            values.put(COL_CUSTOMER_EMAIL, customer.getEmail());
+        }
+        TicketsResponse.User staff = ticket.getAssigned_staff();
+        if (staff != null) {
+            values.put(COL_STAFF_ID, staff.getId());
+            values.put(COL_STAFF_NAME, staff.getName());
+            values.put(COL_STAFF_EMAIL, staff.getEmail());
+        }
+        values.put(COL_COMMENTS_COUNT, ticket.getComments_count());
+        values.put(COL_CREATED_AT, DateUtils.parseIsoMillis(ticket.getCreated_at()));
+        values.put(COL_UPDATED_AT, DateUtils.parseIsoMillis(ticket.getUpdated_at()));
+    }
+
+    /**
+     * Position of a row in the list order, used as the cursor for the page after it.
+     */
+    static final class PageKey {
+        final long updatedAt;
+        final long id;
+
+        private PageKey(long updatedAt, long id) {
+            this.updatedAt = updatedAt;
+            this.id = id;
+        }
+
+        static PageKey after(Ticket ticket) {
+            return new PageKey(ticket.getUpdatedAt(), ticket.getId());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package app.hub.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import app.hub.api.ApiClient;
+import app.hub.api.UserResponse;
+import app.hub.util.TokenManager;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Single source of the signed-in user's profile for every screen that shows it.
+ *
+ * - Concurrent refresh() calls share one in-flight getUser request.
+ * - A successful fetch is kept in memory for {@link #TTL_MS}; refresh() inside that window
+ *   does not touch the network.
+ * - The last good name/email is persisted through TokenManager, so screens can render
+ *   immediately on a cold start or when the server is unreachable.
+ */
+public class UserRepository {
+    private static final String TAG = "UserRepository";
+
+    static final long TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static volatile UserRepository instance;
+
+    private final TokenManager tokenManager;
+    private final MutableLiveData<Profile> user;
+
+    // Guarded by this
+    private Call<UserResponse> inFlight;
+    private String snapshotToken;
+    private long fetchedAtMs;
+
+    private UserRepository(Context context) {
+        tokenManager = new TokenManager(context.getApplicationContext());
+        snapshotToken = tokenManager.getToken();
+        user = new MutableLiveData<>(Profile.fromDisk(tokenManager, Profile.Source.DISK));
+    }
+
+    public static UserRepository getInstance(Context context) {
+        UserRepository repository = instance;
+        if (repository == null) {
+            synchronized (UserRepository.class) {
+                repository = instance;
+                if (repository == null) {
+                    repository = new UserRepository(context);
+                    instance = repository;
+                }
+            }
+        }
+        return repository;
+    }
+
+    /**
+     * Observable profile. Emits the persisted value first, then network results.
+     */
+    public LiveData<Profile> getUser() {
+        return user;
+    }
+
+    /**
+     * Refreshes from the network unless the in-memory snapshot is still within its TTL.
+     */
+    public void refresh() {
+        refresh(false);
+    }
+
+    public synchronized void refresh(boolean force) {
+        String token = tokenManager.getToken();
+        resetIfSessionChanged(token);
+
+        if (token == null) {
+            Log.e(TAG, "No token available, using cached data only");
+            user.postValue(Profile.fromDisk(tokenManager, Profile.Source.DISK_AFTER_ERROR));
+            return;
+        }
+        if (inFlight != null) {
+            // Someone already asked; everyone gets the same result through the LiveData
+            return;
+        }
+        if (!force && fetchedAtMs > 0 && SystemClock.elapsedRealtime() - fetchedAtMs < TTL_MS) {
+            return;
+        }
+
+        Call<UserResponse> call = ApiClient.getApiService().getUser();
+        inFlight = call;
+        call.enqueue(new Callback<UserResponse>() {
+            @Override
+            public void onResponse(@NonNull Call<UserResponse> call, @NonNull Response<UserResponse> response) {
+                UserResponse body = response.body();
+                if (response.isSuccessful() && body != null && body.isSuccess() && body.getData() != null) {
+                    onFetched(call, token, body.getData());
+                } else {
+                    Log.e(TAG, "API call not successful. Code: " + response.code());
+                    onFailed(call);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<UserResponse> call, @NonNull Throwable t) {
+                Log.e(TAG, "API call failed: " + t.getMessage());
+                onFailed(call);
+            }
+        });
+    }
+
+    /**
+     * Applies a locally edited name to the snapshot and persists it.
+     */
+    public synchronized void updateName(String name) {
+        tokenManager.saveName(name);
+        Profile current = user.getValue();
+        String email = current != null ? current.getEmail() : tokenManager.getEmail();
+        Profile.Source source = current != null ? current.getSource() : Profile.Source.DISK;
+        // Renaming is not another failed refresh; keep an already shown notice consumed
+        boolean notice = current != null && current.errorNoticePending.get();
+        user.postValue(new Profile(name, email, source, notice));
+    }
+
+    /**
+     * Drops the in-memory snapshot, e.g. when a different user signs in.
+     */
+    public synchronized void invalidate() {
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+        fetchedAtMs = 0;
+        snapshotToken = tokenManager.getToken();
+        user.postValue(Profile.fromDisk(tokenManager, Profile.Source.DISK));
+    }
+
+    private void resetIfSessionChanged(String token) {
+        boolean same = token == null ? snapshotToken == null : token.equals(snapshotToken);
+        if (!same) {
+            invalidate();
+        }
+    }
+
+    private synchronized void onFetched(Call<UserResponse> call, String token, UserResponse.Data data) {
+        if (call != inFlight) {
+            return;
+        }
+        inFlight = null;
+
+        String name = buildName(data);
+        String email = trimToNull(data.getEmail());
+        if (name == null && email == null) {
+            Log.w(TAG, "API returned empty data, falling back to cached data");
+            user.postValue(Profile.fromDisk(tokenManager, Profile.Source.DISK_AFTER_ERROR));
+            return;
+        }
+        // Fill any gap from the last persisted value
+        if (name == null) {
+            name = trimToNull(tokenManager.getName());
+        }
+        if (email == null) {
+            email = trimToNull(tokenManager.getEmail());
+        }
+
+        tokenManager.saveProfile(name, email);
+        snapshotToken = token;
+        fetchedAtMs = SystemClock.elapsedRealtime();
+        user.postValue(new Profile(name, email, Profile.Source.NETWORK));
+    }
+
+    private synchronized void onFailed(Call<UserResponse> call) {
+        if (call != inFlight) {
+            return;
+        }
+        inFlight = null;
+        user.postValue(Profile.fromDisk(tokenManager, Profile.Source.DISK_AFTER_ERROR));
+    }
+
+    // Prefer the name field, fall back to firstName + lastName
+    static String buildName(UserResponse.Data data) {
+        String name = trimToNull(data.getName());
+        if (name != null) {
+            return name;
+        }
+        StringBuilder nameBuilder = new StringBuilder();
+        String firstName = trimToNull(data.getFirstName());
+        String lastName = trimToNull(data.getLastName());
+        if (firstName != null) {
+            nameBuilder.append(firstName);
+        }
+        if (lastName != null) {
+            if (nameBuilder.length() > 0) {
+                nameBuilder.append(" ");
+            }
+            nameBuilder.append(lastName);
+        }
+        return nameBuilder.length() > 0 ? nameBuilder.toString() : null;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Immutable snapshot of the user's profile.
+     */
+    public static class Profile {
+        public enum Source {
+            // Persisted value, a network refresh may still be pending
+            DISK,
+            // Fresh from the server
+            NETWORK,
+            // Persisted value because the last refresh failed
+            DISK_AFTER_ERROR
+        }
+
+        private final String name;
+        private final String email;
+        private final Source source;
+        // The LiveData replays this snapshot to every new observer; the error notice is shown once
+        private final AtomicBoolean errorNoticePending;
+
+        Profile(String name, String email, Source source) {
+            this(name, email, source, source == Source.DISK_AFTER_ERROR);
+        }
+
+        private Profile(String name, String email, Source source, boolean errorNotice) {
+            this.name = name;
+            this.email = email;
+            this.source = source;
+            errorNoticePending = new AtomicBoolean(errorNotice);
+        }
+
+        static Profile fromDisk(TokenManager tokenManager, Source source) {
+            return new Profile(trimToNull(tokenManager.getName()), trimToNull(tokenManager.getEmail()), source);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Source getSource() {
+            return source;
+        }
+
+        public boolean isComplete() {
+            return name != null && email != null;
+        }
+
+        /**
+         * True only the first time it is called on a DISK_AFTER_ERROR profile, so a screen that is
+         * recreated (rotation, tab switch) does not repeat the "cached data" message.
+         */
+        public boolean consumeErrorNotice() {
+            return errorNoticePending.compareAndSet(true, false);
+        }
+    }
+}
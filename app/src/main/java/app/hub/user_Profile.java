@@ -2,7 +2,6 @@ package app.hub;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -22,7 +21,7 @@ import com.google.android.material.textfield.TextInputLayout;
 import app.hub.api.ApiClient;
 import app.hub.api.ApiService;
 import app.hub.api.LogoutResponse;
-import app.hub.api.UserResponse;
+import app.hub.data.UserRepository;
 import app.hub.util.TokenManager;
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -33,6 +32,8 @@ public class user_Profile extends Fragment {
 	private TokenManager tokenManager;
 	private String currentName;
 	private String currentEmail;
+	private String argumentEmail;
+	private UserRepository userRepository;
 
 	public user_Profile() {
 		// Required empty public constructor
@@ -51,37 +52,15 @@ public class user_Profile extends Fragment {
 
 		tokenManager = new TokenManager(requireContext());
 
-		// Get email from arguments or token manager
-		String email = null;
+		// Email passed in by the caller is shown until the profile has one
 		if (getArguments() != null) {
-			email = getArguments().getString("email");
-		}
-		if (email == null || email.trim().isEmpty()) {
-			email = tokenManager.getEmail();
-		}
-
-		TextView nameTextView = view.findViewById(R.id.nameTextView);
-		TextView emailTextView = view.findViewById(R.id.emailTextView);
-		
-		if (nameTextView != null) {
-			String name = tokenManager.getName();
-			if (name != null && !name.trim().isEmpty()) {
-				nameTextView.setText(name.trim());
-			} else {
-				nameTextView.setText("Loading...");
-			}
-		}
-		
-		if (emailTextView != null) {
-			if (email != null && !email.trim().isEmpty()) {
-				emailTextView.setText(email.trim());
-			} else {
-				emailTextView.setText("Loading...");
-			}
+			argumentEmail = getArguments().getString("email");
 		}
 
-		// Fetch user data from API
-		fetchUserData();
+		// Profile is shared with ProfileActivity; refresh() skips the network while the snapshot is fresh
+		userRepository = UserRepository.getInstance(requireContext());
+		userRepository.getUser().observe(getViewLifecycleOwner(), this::showProfile);
+		userRepository.refresh();
 
 		MaterialButton editNameButton = view.findViewById(R.id.editNameButton);
 		if (editNameButton != null) {
@@ -97,172 +76,43 @@ public class user_Profile extends Fragment {
 		if (logoutButton != null) {
 			logoutButton.setOnClickListener(v -> logout());
 		}
+
+		// Hidden on purpose: per-endpoint network timings, so support can ask for an export
+		View profileImage = view.findViewById(R.id.profile_image_placeholder);
+		if (profileImage != null) {
+			profileImage.setOnLongClickListener(v -> {
+				startActivity(new Intent(requireContext(), NetworkMetricsActivity.class));
+				return true;
+			});
+		}
 	}
 
-	private void fetchUserData() {
-		String token = tokenManager.getToken();
-		if (token == null) {
-			Log.e("user_Profile", "No token available, using cached data only");
-			fallbackToCachedData();
-			return;
+	private void showProfile(UserRepository.Profile profile) {
+		View view = getView();
+		if (view == null || profile == null) return;
+		TextView nameTextView = view.findViewById(R.id.nameTextView);
+		TextView emailTextView = view.findViewById(R.id.emailTextView);
+
+		// A DISK profile means a refresh may still be running, so missing fields show as loading
+		boolean pending = profile.getSource() == UserRepository.Profile.Source.DISK;
+
+		currentName = profile.getName();
+		currentEmail = profile.getEmail();
+		if (currentEmail == null && argumentEmail != null && !argumentEmail.trim().isEmpty()) {
+			currentEmail = argumentEmail.trim();
 		}
 
-		// Log cached data before API call
-		String cachedName = tokenManager.getName();
-		String cachedEmail = tokenManager.getEmail();
-		Log.d("user_Profile", "Cached data before API call - Name: " + cachedName + ", Email: " + cachedEmail);
-
-		ApiService apiService = ApiClient.getApiService();
-		Call<UserResponse> call = apiService.getUser(token);
-		call.enqueue(new Callback<UserResponse>() {
-			@Override
-			public void onResponse(@NonNull Call<UserResponse> call, @NonNull Response<UserResponse> response) {
-				if (response.isSuccessful() && response.body() != null) {
-					UserResponse userResponse = response.body();
-					Log.d("user_Profile", "API Response - Success: " + userResponse.isSuccess());
-					
-					if (userResponse.isSuccess() && userResponse.getData() != null) {
-						UserResponse.Data userData = userResponse.getData();
-						
-						// Log the raw data from API
-						Log.d("user_Profile", "API Data - Name: " + userData.getName() + 
-							", FirstName: " + userData.getFirstName() + 
-							", LastName: " + userData.getLastName() + 
-							", Email: " + userData.getEmail());
-						
-						// Get name - prefer name field, fallback to firstName + lastName
-						currentName = userData.getName();
-						if (currentName == null || currentName.trim().isEmpty()) {
-							String firstName = userData.getFirstName();
-							String lastName = userData.getLastName();
-							
-							Log.d("user_Profile", "Name field is empty, combining firstName and lastName");
-							
-							// Build name from firstName and lastName
-							StringBuilder nameBuilder = new StringBuilder();
-							if (firstName != null && !firstName.trim().isEmpty()) {
-								nameBuilder.append(firstName.trim());
-							}
-							if (lastName != null && !lastName.trim().isEmpty()) {
-								if (nameBuilder.length() > 0) {
-									nameBuilder.append(" ");
-								}
-								nameBuilder.append(lastName.trim());
-							}
-							
-							currentName = nameBuilder.toString();
-							Log.d("user_Profile", "Combined name: " + currentName);
-						} else {
-							currentName = currentName.trim();
-						}
-						
-						currentEmail = userData.getEmail();
-						if (currentEmail != null) {
-							currentEmail = currentEmail.trim();
-						}
-						
-						Log.d("user_Profile", "Final values - Name: " + currentName + ", Email: " + currentEmail);
-						
-						// If API returned empty data, fallback to cached data
-						if ((currentName == null || currentName.isEmpty()) && 
-							(currentEmail == null || currentEmail.isEmpty())) {
-							Log.w("user_Profile", "API returned empty data, falling back to cached data");
-							fallbackToCachedData();
-							return;
-						}
-						
-						// If name is empty but email exists, try to get name from cache
-						if ((currentName == null || currentName.isEmpty()) && 
-							(currentEmail != null && !currentEmail.isEmpty())) {
-							String cachedName = tokenManager.getName();
-							if (cachedName != null && !cachedName.trim().isEmpty()) {
-								currentName = cachedName.trim();
-								Log.d("user_Profile", "Using cached name: " + currentName);
-							}
-						}
-						
-						// If email is empty but name exists, try to get email from cache
-						if ((currentEmail == null || currentEmail.isEmpty()) && 
-							(currentName != null && !currentName.isEmpty())) {
-							String cachedEmail = tokenManager.getEmail();
-							if (cachedEmail != null && !cachedEmail.trim().isEmpty()) {
-								currentEmail = cachedEmail.trim();
-								Log.d("user_Profile", "Using cached email: " + currentEmail);
-							}
-						}
-						
-						// Update UI on main thread
-						if (getActivity() != null) {
-							getActivity().runOnUiThread(() -> {
-								if (getView() == null) return;
-								TextView nameTextView = getView().findViewById(R.id.nameTextView);
-								TextView emailTextView = getView().findViewById(R.id.emailTextView);
-								
-								if (nameTextView != null) {
-									if (currentName != null && !currentName.isEmpty()) {
-										nameTextView.setText(currentName);
-									} else {
-										// Try cached data one more time
-										String cachedName = tokenManager.getName();
-										if (cachedName != null && !cachedName.trim().isEmpty()) {
-											nameTextView.setText(cachedName.trim());
-											currentName = cachedName.trim();
-										} else {
-											nameTextView.setText("No name available");
-										}
-									}
-								}
-								
-								if (emailTextView != null) {
-									if (currentEmail != null && !currentEmail.isEmpty()) {
-										emailTextView.setText(currentEmail);
-									} else {
-										// Try cached data one more time
-										String cachedEmail = tokenManager.getEmail();
-										if (cachedEmail != null && !cachedEmail.trim().isEmpty()) {
-											emailTextView.setText(cachedEmail.trim());
-											currentEmail = cachedEmail.trim();
-										} else {
-											emailTextView.setText("No email available");
-										}
-									}
-								}
-							});
-						}
-						
-						// Update token manager with latest data
-						if (currentName != null && !currentName.isEmpty()) {
-							tokenManager.saveName(currentName);
-						}
-						if (currentEmail != null && !currentEmail.isEmpty()) {
-							tokenManager.saveEmail(currentEmail);
-						}
-					} else {
-						// Handle case where response is not successful - fallback to cached data
-						Log.e("user_Profile", "API response not successful or data is null");
-						fallbackToCachedData();
-					}
-				} else {
-					// Handle error response - fallback to cached data
-					Log.e("user_Profile", "API call not successful. Code: " + response.code());
-					if (response.errorBody() != null) {
-						try {
-							Log.e("user_Profile", "Error body: " + response.errorBody().string());
-						} catch (java.io.IOException e) {
-							Log.e("user_Profile", "Error reading error body", e);
-						}
-					}
-					fallbackToCachedData();
-				}
-			}
-
-			@Override
-			public void onFailure(@NonNull Call<UserResponse> call, @NonNull Throwable t) {
-				// Show error but fallback to cached data
-				Log.e("user_Profile", "API call failed: " + t.getMessage());
-				fallbackToCachedData();
-			}
-		});
+		if (nameTextView != null) {
+			nameTextView.setText(currentName != null ? currentName : (pending ? "Loading..." : "No name available"));
+		}
+		if (emailTextView != null) {
+			emailTextView.setText(currentEmail != null ? currentEmail : (pending ? "Loading..." : "No email available"));
+		}
+
+		// Show a subtle message that we're using cached data, once per failed refresh
+		if (!profile.isComplete() && profile.consumeErrorNotice()) {
+			Toast.makeText(getContext(), "Using cached data. Please check your connection.", Toast.LENGTH_SHORT).show();
+		}
 	}
 
 	private void showEditNameDialog() {
@@ -389,15 +239,8 @@ public class user_Profile extends Fragment {
 
 	private void updateName(String newName) {
 		// TODO: Implement API call to update name
-		// For now, just update locally
-		currentName = newName;
-		if (getView() != null) {
-			TextView nameTextView = getView().findViewById(R.id.nameTextView);
-			if (nameTextView != null) {
-				nameTextView.setText(newName);
-			}
-		}
-		tokenManager.saveName(newName);
+		// For now, just update locally; the repository pushes the new name to every observer
+		userRepository.updateName(newName);
 		Toast.makeText(getContext(), "Name updated successfully", Toast.LENGTH_SHORT).show();
 	}
 
@@ -407,10 +250,9 @@ public class user_Profile extends Fragment {
 	}
 
 	private void logout() {
-		String token = tokenManager.getToken();
-		if (token != null) {
+		if (tokenManager.isLoggedIn()) {
 			ApiService apiService = ApiClient.getApiService();
-			Call<LogoutResponse> call = apiService.logout(token);
+			Call<LogoutResponse> call = apiService.logout();
 			call.enqueue(new Callback<LogoutResponse>() {
 				@Override
 				public void onResponse(@NonNull Call<LogoutResponse> call, @NonNull Response<LogoutResponse> response) {
@@ -439,44 +281,4 @@ public class user_Profile extends Fragment {
 		startActivity(intent);
 		getActivity().finish();
 	}
-
-	private void fallbackToCachedData() {
-		if (getActivity() == null) return;
-		// Fallback to cached data from TokenManager if API fails
-		getActivity().runOnUiThread(() -> {
-			if (getView() == null) return;
-			TextView nameTextView = getView().findViewById(R.id.nameTextView);
-			TextView emailTextView = getView().findViewById(R.id.emailTextView);
-			
-			// Get cached data
-			String cachedName = tokenManager.getName();
-			String cachedEmail = tokenManager.getEmail();
-			
-			Log.d("user_Profile", "Using cached data - Name: " + cachedName + ", Email: " + cachedEmail);
-			
-			if (nameTextView != null) {
-				if (cachedName != null && !cachedName.trim().isEmpty()) {
-					nameTextView.setText(cachedName.trim());
-					currentName = cachedName.trim();
-				} else {
-					nameTextView.setText("No name available");
-				}
-			}
-			
-			if (emailTextView != null) {
-				if (cachedEmail != null && !cachedEmail.trim().isEmpty()) {
-					emailTextView.setText(cachedEmail.trim());
-					currentEmail = cachedEmail.trim();
-				} else {
-					emailTextView.setText("No email available");
-				}
-			}
-			
-			// Show a subtle message that we're using cached data
-			if (cachedName == null || cachedName.trim().isEmpty() || 
-				cachedEmail == null || cachedEmail.trim().isEmpty()) {
-				Toast.makeText(getContext(), "Using cached data. Please check your connection.", Toast.LENGTH_SHORT).show();
-			}
-		});
-	}
 }
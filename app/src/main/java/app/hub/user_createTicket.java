@@ -1,6 +1,7 @@
 package app.hub;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -17,10 +18,8 @@ import androidx.fragment.app.Fragment;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
-import app.hub.api.ApiClient;
-import app.hub.api.ApiService;
-import app.hub.api.CreateTicketRequest;
 import app.hub.api.CreateTicketResponse;
+import app.hub.data.TicketOutbox;
 import app.hub.util.TokenManager;
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -28,6 +27,8 @@ import retrofit2.Response;
 
 public class user_createTicket extends Fragment {
 
+    private static final String TAG = "user_createTicket";
+
     private TextInputEditText titleInput, descriptionInput, addressInput, contactInput;
     private TextInputLayout titleInputLayout, descriptionInputLayout, addressInputLayout, contactInputLayout;
     private Spinner serviceTypeSpinner;
@@ -109,37 +110,73 @@ public class user_createTicket extends Fragment {
             return;
         }
 
-        CreateTicketRequest request = new CreateTicketRequest(title, description, serviceType, address, contact);
-        ApiService apiService = ApiClient.getApiService();
-        String token = tokenManager.getToken();
-
-        if (token == null) {
+        if (!tokenManager.isLoggedIn()) {
             Toast.makeText(getContext(), "You are not logged in.", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        Call<CreateTicketResponse> call = apiService.createTicket(token, request);
+        // Persist first so the ticket survives a failed request or the app being killed
+        TicketOutbox outbox = TicketOutbox.getInstance(requireContext());
+        outbox.enqueue(TicketOutbox.Kind.JSON, title, description, serviceType, address, contact, null,
+                new TicketOutbox.EnqueueCallback() {
+                    @Override
+                    public void onQueued(TicketOutbox.PendingTicket pending) {
+                        if (!isAdded()) {
+                            // Nobody to report to; the worker sends it
+                            outbox.markRetry(pending, "Screen closed");
+                            return;
+                        }
+                        sendTicket(outbox, pending);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Could not store ticket", e);
+                        if (!isAdded()) return;
+                        Toast.makeText(getContext(), "An error occurred", Toast.LENGTH_SHORT).show();
+                    }
+                });
+    }
+
+    private void sendTicket(TicketOutbox outbox, TicketOutbox.PendingTicket pending) {
+        Call<CreateTicketResponse> call = outbox.newCall(pending, null);
         call.enqueue(new Callback<CreateTicketResponse>() {
             @Override
             public void onResponse(Call<CreateTicketResponse> call, Response<CreateTicketResponse> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    outbox.markSent(pending);
                     Toast.makeText(getContext(), "Ticket created successfully", Toast.LENGTH_SHORT).show();
-                    // Clear the input fields
-                    titleInput.setText("");
-                    descriptionInput.setText("");
-                    addressInput.setText("");
-                    contactInput.setText("");
-                    serviceTypeSpinner.setSelection(0);
-                    setFormVisibility(View.GONE);
-                } else {
+                    clearForm();
+                } else if (response.isSuccessful() || TicketOutbox.isPermanentFailure(response.code())) {
+                    // Rejected as sent; the form is still filled in so the user can fix it
+                    outbox.discard(pending);
                     Toast.makeText(getContext(), "Failed to create ticket", Toast.LENGTH_SHORT).show();
+                } else {
+                    queuedForRetry(outbox, pending, "HTTP " + response.code());
                 }
             }
 
             @Override
             public void onFailure(Call<CreateTicketResponse> call, Throwable t) {
-                Toast.makeText(getContext(), "An error occurred", Toast.LENGTH_SHORT).show();
+                queuedForRetry(outbox, pending, String.valueOf(t.getMessage()));
             }
         });
     }
+
+    private void queuedForRetry(TicketOutbox outbox, TicketOutbox.PendingTicket pending, String error) {
+        outbox.markRetry(pending, error);
+        Toast.makeText(getContext(), "Ticket saved. It will be sent automatically once you're back online.", Toast.LENGTH_LONG).show();
+        clearForm();
+    }
+
+    private void clearForm() {
+        if (getView() == null) return;
+        // Clear the input fields
+        titleInput.setText("");
+        descriptionInput.setText("");
+        addressInput.setText("");
+        contactInput.setText("");
+        serviceTypeSpinner.setSelection(0);
+        setFormVisibility(View.GONE);
+    }
 }
@@ -0,0 +1,83 @@
+package app.hub.util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+public class DateUtils {
+
+    private static final ThreadLocal<SimpleDateFormat> ISO_SECONDS = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return format;
+        }
+    };
+
+    private static final ThreadLocal<SimpleDateFormat> ISO_MILLIS_UTC = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return format;
+        }
+    };
+
+    /**
+     * Parse an ISO-8601 timestamp as sent by Laravel ("2025-01-16T14:15:00.000000Z",
+     * "2025-01-16T14:15:00Z" or with a +hh:mm offset) into epoch millis.
+     * Returns 0 if the value is missing or malformed.
+     */
+    public static long parseIsoMillis(String value) {
+        if (value == null || value.length() < 19) {
+            return 0;
+        }
+        try {
+            long millis = ISO_SECONDS.get().parse(value.substring(0, 19)).getTime();
+
+            int i = 19;
+            // Fraction: keep the first three digits, ignore the rest (microseconds)
+            if (i < value.length() && value.charAt(i) == '.') {
+                i++;
+                int fraction = 0;
+                int digits = 0;
+                while (i < value.length() && Character.isDigit(value.charAt(i))) {
+                    if (digits < 3) {
+                        fraction = fraction * 10 + (value.charAt(i) - '0');
+                        digits++;
+                    }
+                    i++;
+                }
+                while (digits < 3) {
+                    fraction *= 10;
+                    digits++;
+                }
+                millis += fraction;
+            }
+
+            // Offset: Z, +hh:mm, -hh:mm (or +hhmm)
+            if (i < value.length() && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+                int sign = value.charAt(i) == '+' ? 1 : -1;
+                String offset = value.substring(i + 1).replace(":", "");
+                if (offset.length() >= 4) {
+                    int hours = Integer.parseInt(offset.substring(0, 2));
+                    int minutes = Integer.parseInt(offset.substring(2, 4));
+                    millis -= sign * (hours * 3600_000L + minutes * 60_000L);
+                }
+            }
+            return millis;
+        } catch (ParseException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Format epoch millis as an ISO-8601 UTC timestamp the API accepts.
+     */
+    public static String formatIsoMillis(long millis) {
+        return ISO_MILLIS_UTC.get().format(new Date(millis));
+    }
+}
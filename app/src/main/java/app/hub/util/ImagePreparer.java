@@ -0,0 +1,196 @@
+package app.hub.util;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Turns a picked/captured image into a small JPEG file ready for upload.
+ *
+ * The full-resolution image is never decoded: bounds are read first, the bitmap is decoded
+ * with an inSampleSize close to the target size, then scaled to at most maxDimension on the
+ * long edge, rotated according to EXIF, and written to the cache directory. All of this runs
+ * on a single background thread.
+ */
+public class ImagePreparer {
+    private static final String TAG = "ImagePreparer";
+
+    // Long edge of the uploaded image; enough for a technician to see the problem
+    public static final int DEFAULT_MAX_DIMENSION = 1600;
+    public static final int DEFAULT_QUALITY = 80;
+
+    private static final String UPLOAD_DIR = "uploads";
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public interface Callback {
+        void onPrepared(File file);
+
+        void onError(Exception e);
+    }
+
+    private ImagePreparer() {
+    }
+
+    /**
+     * Prepares the image on a background thread and reports back on the main thread.
+     */
+    public static void prepareAsync(Context context, Uri uri, Callback callback) {
+        prepareAsync(context, uri, DEFAULT_MAX_DIMENSION, DEFAULT_QUALITY, callback);
+    }
+
+    public static void prepareAsync(Context context, Uri uri, int maxDimension, int quality, Callback callback) {
+        Context appContext = context.getApplicationContext();
+        executor.execute(() -> {
+            try {
+                File file = prepare(appContext, uri, maxDimension, quality);
+                mainHandler.post(() -> callback.onPrepared(file));
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Failed to prepare image " + uri, e);
+                mainHandler.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Blocking version; must not be called on the main thread.
+     */
+    public static File prepare(Context context, Uri uri, int maxDimension, int quality) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+
+        // 1. Bounds only, no pixels allocated
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not a decodable image: " + uri);
+        }
+
+        // 2. Subsampled decode straight to roughly the target size
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = calculateInSampleSize(bounds.outWidth, bounds.outHeight, maxDimension);
+        options.inPreferredConfig = Bitmap.Config.RGB_565; // JPEG has no alpha; half the memory of ARGB_8888
+        Bitmap bitmap;
+        try (InputStream in = open(resolver, uri)) {
+            bitmap = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (bitmap == null) {
+            throw new IOException("Failed to decode image: " + uri);
+        }
+
+        // 3. Exact scale + EXIF rotation in one pass
+        bitmap = scaleAndRotate(bitmap, maxDimension, readOrientation(resolver, uri));
+
+        // 4. Encode to a cache file
+        File dir = new File(context.getCacheDir(), UPLOAD_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File out = File.createTempFile("ticket_", ".jpg", dir);
+        try (OutputStream os = new FileOutputStream(out)) {
+            if (!bitmap.compress(Bitmap.CompressFormat.JPEG, quality, os)) {
+                throw new IOException("JPEG encoding failed");
+            }
+        } catch (IOException e) {
+            //noinspection ResultOfMethodCallIgnored
+            out.delete();
+            throw e;
+        } finally {
+            bitmap.recycle();
+        }
+        Log.d(TAG, "Prepared " + bounds.outWidth + "x" + bounds.outHeight + " -> " + out.length() + " bytes");
+        return out;
+    }
+
+    /**
+     * Largest power of two that keeps the long edge at or above maxDimension.
+     */
+    static int calculateInSampleSize(int width, int height, int maxDimension) {
+        int longEdge = Math.max(width, height);
+        int inSampleSize = 1;
+        while (longEdge / (inSampleSize * 2) >= maxDimension) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private static Bitmap scaleAndRotate(Bitmap source, int maxDimension, int orientation) {
+        Matrix matrix = new Matrix();
+        int longEdge = Math.max(source.getWidth(), source.getHeight());
+        if (longEdge > maxDimension) {
+            float scale = (float) maxDimension / longEdge;
+            matrix.postScale(scale, scale);
+        }
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            // Mirrored across a diagonal: rotate, then flip
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(270);
+                matrix.postScale(-1, 1);
+                break;
+            default:
+                break;
+        }
+        if (matrix.isIdentity()) {
+            return source;
+        }
+        Bitmap result = Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
+        if (result != source) {
+            source.recycle();
+        }
+        return result;
+    }
+
+    private static int readOrientation(ContentResolver resolver, Uri uri) {
+        try (InputStream in = open(resolver, uri)) {
+            return new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException e) {
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Cannot open " + uri);
+        }
+        return in;
+    }
+}
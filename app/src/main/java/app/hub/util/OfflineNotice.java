@@ -0,0 +1,53 @@
+package app.hub.util;
+
+import android.widget.Toast;
+
+import androidx.annotation.StringRes;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import app.hub.api.ApiClient;
+import app.hub.api.CircuitBreaker;
+
+/**
+ * Tells the user once per outage that a screen is showing stored data because an endpoint
+ * group's circuit is open.
+ *
+ * LiveData replays the current state to every new observer, so remembering the previous
+ * state in the screen would announce the same outage again after every rotation or return
+ * from the back stack. Which groups have been announced is kept here instead, and cleared
+ * only when the circuit closes; a failed half-open probe reopening it is the same outage.
+ */
+public final class OfflineNotice {
+
+    // Only touched on the main thread, where LiveData delivers
+    private static final Set<String> tracked = new HashSet<>();
+    private static final Set<String> announced = new HashSet<>();
+
+    private OfflineNotice() {
+    }
+
+    /**
+     * Shows message as a Toast when the group's circuit opens, for as long as the fragment's
+     * view exists. Call from onViewCreated.
+     */
+    public static void observe(Fragment fragment, String group, @StringRes int message) {
+        LiveData<CircuitBreaker.State> state = ApiClient.getCircuitBreaker().getState(group);
+        if (tracked.add(group)) {
+            // Sees the circuit close even while no screen is showing the group
+            state.observeForever(value -> {
+                if (value == CircuitBreaker.State.CLOSED) {
+                    announced.remove(group);
+                }
+            });
+        }
+        state.observe(fragment.getViewLifecycleOwner(), value -> {
+            if (value == CircuitBreaker.State.OPEN && announced.add(group)) {
+                Toast.makeText(fragment.requireContext(), message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+}
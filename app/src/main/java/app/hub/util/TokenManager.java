@@ -10,50 +10,160 @@ public class TokenManager {
     private static final String KEY_NAME = "name";
     private static final String KEY_ROLE = "role";
 
+    // Process-wide copy of the stored session. It is read from SharedPreferences once and then
+    // kept in sync by every save, so getters (and the auth interceptor) never touch the prefs map.
+    // Every TokenManager instance reads and writes the same prefs file, so one snapshot is enough.
+    private static volatile Session cachedSession;
+
     private final SharedPreferences sharedPreferences;
 
     public TokenManager(Context context) {
         sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
     }
 
+    /**
+     * Saves the whole session with a single SharedPreferences write.
+     * Null fields are removed rather than kept from a previous session.
+     */
+    public void saveSession(Session session) {
+        synchronized (TokenManager.class) {
+            cachedSession = session;
+            SharedPreferences.Editor editor = sharedPreferences.edit();
+            putOrRemove(editor, KEY_TOKEN, session.getToken());
+            putOrRemove(editor, KEY_EMAIL, session.getEmail());
+            putOrRemove(editor, KEY_NAME, session.getName());
+            putOrRemove(editor, KEY_ROLE, session.getRole());
+            editor.apply();
+        }
+    }
+
+    public Session getSession() {
+        Session session = cachedSession;
+        if (session == null) {
+            synchronized (TokenManager.class) {
+                session = cachedSession;
+                if (session == null) {
+                    session = new Session(
+                            sharedPreferences.getString(KEY_TOKEN, null),
+                            sharedPreferences.getString(KEY_EMAIL, null),
+                            sharedPreferences.getString(KEY_NAME, null),
+                            sharedPreferences.getString(KEY_ROLE, null));
+                    cachedSession = session;
+                }
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Updates name and email together (one write) and leaves token and role untouched.
+     */
+    public void saveProfile(String name, String email) {
+        synchronized (TokenManager.class) {
+            Session current = getSession();
+            saveSession(new Session(current.getToken(), email, name, current.getRole()));
+        }
+    }
+
     public void saveToken(String token) {
-        sharedPreferences.edit().putString(KEY_TOKEN, token).apply();
+        synchronized (TokenManager.class) {
+            Session current = getSession();
+            cachedSession = new Session(token, current.getEmail(), current.getName(), current.getRole());
+            sharedPreferences.edit().putString(KEY_TOKEN, token).apply();
+        }
     }
 
     public String getToken() {
-        return sharedPreferences.getString(KEY_TOKEN, null);
+        return getSession().getToken();
     }
 
     public void saveEmail(String email) {
-        sharedPreferences.edit().putString(KEY_EMAIL, email).apply();
+        synchronized (TokenManager.class) {
+            Session current = getSession();
+            cachedSession = new Session(current.getToken(), email, current.getName(), current.getRole());
+            sharedPreferences.edit().putString(KEY_EMAIL, email).apply();
+        }
     }
 
     public String getEmail() {
-        return sharedPreferences.getString(KEY_EMAIL, null);
+        return getSession().getEmail();
     }
 
     public void saveName(String name) {
-        sharedPreferences.edit().putString(KEY_NAME, name).apply();
+        synchronized (TokenManager.class) {
+            Session current = getSession();
+            cachedSession = new Session(current.getToken(), current.getEmail(), name, current.getRole());
+            sharedPreferences.edit().putString(KEY_NAME, name).apply();
+        }
     }
 
     public String getName() {
-        return sharedPreferences.getString(KEY_NAME, null);
+        return getSession().getName();
     }
 
     public void saveRole(String role) {
-        sharedPreferences.edit().putString(KEY_ROLE, role).apply();
+        synchronized (TokenManager.class) {
+            Session current = getSession();
+            cachedSession = new Session(current.getToken(), current.getEmail(), current.getName(), role);
+            sharedPreferences.edit().putString(KEY_ROLE, role).apply();
+        }
     }
 
     public String getRole() {
-        return sharedPreferences.getString(KEY_ROLE, null);
+        return getSession().getRole();
     }
 
     public void clear() {
-        sharedPreferences.edit().clear().apply();
+        synchronized (TokenManager.class) {
+            cachedSession = Session.EMPTY;
+            sharedPreferences.edit().clear().apply();
+        }
     }
 
     public boolean isLoggedIn() {
         return getToken() != null;
     }
-}
 
+    private static void putOrRemove(SharedPreferences.Editor editor, String key, String value) {
+        if (value != null) {
+            editor.putString(key, value);
+        } else {
+            editor.remove(key);
+        }
+    }
+
+    /**
+     * Immutable snapshot of what is stored for the logged-in user.
+     */
+    public static class Session {
+        static final Session EMPTY = new Session(null, null, null, null);
+
+        private final String token;
+        private final String email;
+        private final String name;
+        private final String role;
+
+        public Session(String token, String email, String name, String role) {
+            this.token = token;
+            this.email = email;
+            this.name = name;
+            this.role = role;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getRole() {
+            return role;
+        }
+    }
+}
@@ -5,25 +5,54 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.servicehub.model.Message;
-import java.util.List;
 import app.hub.R;
 
-public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.MessageViewHolder> {
+/**
+ * Chat bubbles. Hand it a new list with submitList(); the diff runs on a background thread
+ * and only inserted or edited messages are bound.
+ */
+public class ChatAdapter extends ListAdapter<Message, ChatAdapter.MessageViewHolder> {
 
     private static final int VIEW_TYPE_USER = 1;
     private static final int VIEW_TYPE_AI = 2;
+    private static final Object PAYLOAD_TEXT = new Object();
 
-    private final List<Message> messages;
+    private static final DiffUtil.ItemCallback<Message> DIFF_CALLBACK = new DiffUtil.ItemCallback<Message>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Message oldItem, @NonNull Message newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Message oldItem, @NonNull Message newItem) {
+            return oldItem.equals(newItem);
+        }
 
-    public ChatAdapter(List<Message> messages) {
-        this.messages = messages;
+        @Override
+        public Object getChangePayload(@NonNull Message oldItem, @NonNull Message newItem) {
+            // Non-null payload: the animator rebinds the same holder instead of cross-fading,
+            // so a reply that is still streaming in does not flicker
+            return PAYLOAD_TEXT;
+        }
+    };
+
+    public ChatAdapter() {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     @Override
     public int getItemViewType(int position) {
-        if (messages.get(position).isSentByUser()) {
+        if (getItem(position).isSentByUser()) {
             return VIEW_TYPE_USER;
         } else {
             return VIEW_TYPE_AI;
@@ -44,12 +73,7 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.MessageViewHol
 
     @Override
     public void onBindViewHolder(@NonNull MessageViewHolder holder, int position) {
-        holder.bind(messages.get(position));
-    }
-
-    @Override
-    public int getItemCount() {
-        return messages.size();
+        holder.bind(getItem(position));
     }
 
     static class MessageViewHolder extends RecyclerView.ViewHolder {
@@ -1,14 +1,37 @@
 package com.servicehub.model;
 
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class Message {
+    // Ids for messages created on the device; unique for the process lifetime
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    private final long id;
     private final String text;
     private final boolean isSentByUser;
 
     public Message(String text, boolean isSentByUser) {
+        this(NEXT_ID.getAndIncrement(), text, isSentByUser);
+    }
+
+    public Message(long id, String text, boolean isSentByUser) {
+        this.id = id;
         this.text = text;
         this.isSentByUser = isSentByUser;
     }
 
+    /**
+     * Reserves an id, e.g. for a reply that is filled in later with the same id.
+     */
+    public static long nextId() {
+        return NEXT_ID.getAndIncrement();
+    }
+
+    public long getId() {
+        return id;
+    }
+
     public String getText() {
         return text;
     }
@@ -16,4 +39,21 @@ public class Message {
     public boolean isSentByUser() {
         return isSentByUser;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Message)) {
+            return false;
+        }
+        Message other = (Message) o;
+        return id == other.id && isSentByUser == other.isSentByUser && Objects.equals(text, other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, text, isSentByUser);
+    }
 }
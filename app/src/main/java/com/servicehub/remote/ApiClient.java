@@ -0,0 +1,15 @@
+package com.servicehub.remote;
+
+/**
+ * Entry point for the chatbot service. The HTTP stack itself lives in
+ * {@link app.hub.api.ApiClient} so both service interfaces share one connection pool.
+ */
+public class ApiClient {
+
+    private ApiClient() {
+    }
+
+    public static ApiService getApiService() {
+        return app.hub.api.ApiClient.getChatService();
+    }
+}
@@ -2,11 +2,15 @@ package com.servicehub.remote;
 
 import com.servicehub.model.ChatRequest;
 import com.servicehub.model.ChatResponse;
+
+import app.hub.api.CallProfile;
+import app.hub.api.CallProfile.Profile;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.POST;
 
 public interface ApiService {
+    @Profile(CallProfile.INTERACTIVE)
     @POST("chatbot")
     Call<ChatResponse> sendMessage(@Body ChatRequest request);
 }
@@ -0,0 +1,29 @@
+package app.hub;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class TicketTest {
+
+    @Test
+    public void statusesAlternatingBetweenResponsesStillCompareEqual() {
+        Ticket before = ticket(TicketStatus.of(900, "Open", "#2196F3"));
+        // Another response with a different color re-interns the status...
+        Ticket recoloured = ticket(TicketStatus.of(900, "Open", "#1976D2"));
+        // ...and the next one switches back, to a third instance
+        Ticket after = ticket(TicketStatus.of(900, "Open", "#2196F3"));
+
+        assertNotSame(before.getStatus(), after.getStatus());
+        assertEquals(before, after);
+        assertNotEquals(before, recoloured);
+        assertNotEquals(before, ticket(TicketStatus.of(901, "Open", "#2196F3")));
+    }
+
+    private static Ticket ticket(TicketStatus status) {
+        return new Ticket(7, "Leak", "Under the sink", status, Priority.HIGH,
+                3, Ticket.UNASSIGNED, 2, 1_700_000_000_000L, 1_700_000_100_000L);
+    }
+}
@@ -0,0 +1,156 @@
+package app.hub.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CachePolicyTest {
+    @Rule
+    public final TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .cache(new Cache(cacheDir.getRoot(), 1024 * 1024))
+                .addNetworkInterceptor(new CachePolicy())
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void maxAgeForListedEndpoints() {
+        assertEquals(60, CachePolicy.maxAgeFor("/api/v1/user"));
+        assertEquals(0, CachePolicy.maxAgeFor("/api/v1/tickets"));
+        assertEquals(0, CachePolicy.maxAgeFor("/api/v1/tickets/12"));
+        assertEquals(0, CachePolicy.maxAgeFor("/api/v1/tickets/12/comments"));
+    }
+
+    @Test
+    public void maxAgeForOtherEndpoints() {
+        assertEquals(-1, CachePolicy.maxAgeFor("/api/v1/login"));
+        assertEquals(-1, CachePolicy.maxAgeFor("/api/v1/chatbot"));
+        assertEquals(-1, CachePolicy.maxAgeFor("/"));
+        assertEquals(-1, CachePolicy.maxAgeFor(""));
+        // Prefixes match whole segments, not the start of a longer name
+        assertEquals(-1, CachePolicy.maxAgeFor("/api/v1/users"));
+        assertEquals(-1, CachePolicy.maxAgeFor("/api/v1/tickets-archive"));
+        assertEquals(-1, CachePolicy.maxAgeFor("/api/v2/user"));
+    }
+
+    @Test
+    public void laravelNoCacheBecomesMaxAge() throws IOException {
+        server.enqueue(new MockResponse()
+                .setHeader("Cache-Control", "no-cache, private")
+                .setHeader("Pragma", "no-cache")
+                .setHeader("Vary", "Origin")
+                .setBody("{}"));
+        try (Response response = get("/api/v1/user")) {
+            assertEquals("private, max-age=60", response.header("Cache-Control"));
+            assertEquals("Origin, Authorization, Accept", response.header("Vary"));
+            assertNull(response.header("Pragma"));
+        }
+    }
+
+    @Test
+    public void ticketListsAlwaysRevalidate() throws IOException {
+        server.enqueue(new MockResponse().setHeader("Vary", "accept, Authorization").setBody("{}"));
+        try (Response response = get("/api/v1/tickets?scope=mine")) {
+            assertEquals("private, no-cache", response.header("Cache-Control"));
+            // Already there, in any case
+            assertEquals("accept, Authorization", response.header("Vary"));
+        }
+    }
+
+    @Test
+    public void noStoreAndUnlistedAndNonGetAreLeftAlone() throws IOException {
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "no-store").setBody("{}"));
+        try (Response response = get("/api/v1/user")) {
+            assertEquals("no-store", response.header("Cache-Control"));
+        }
+
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "no-cache, private").setBody("{}"));
+        try (Response response = get("/api/v1/users")) {
+            assertEquals("no-cache, private", response.header("Cache-Control"));
+        }
+
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "no-cache, private").setBody("{}"));
+        Request post = new Request.Builder()
+                .url(server.url("/api/v1/tickets"))
+                .post(RequestBody.create("{}", MediaType.get("application/json")))
+                .build();
+        try (Response response = client.newCall(post).execute()) {
+            assertEquals("no-cache, private", response.header("Cache-Control"));
+        }
+
+        server.enqueue(new MockResponse().setResponseCode(500).setHeader("Cache-Control", "no-cache, private"));
+        try (Response response = get("/api/v1/user")) {
+            assertEquals("no-cache, private", response.header("Cache-Control"));
+        }
+    }
+
+    @Test
+    public void revalidationKeepsTheMaxAge() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader("Cache-Control", "no-cache, private")
+                .setHeader("ETag", "\"v1\"")
+                .setBody("profile"));
+        try (Response response = get("/api/v1/user")) {
+            assertEquals("profile", response.body().string());
+        }
+
+        // Pull-to-refresh style forced revalidation; Laravel answers the 304 with its own headers
+        server.enqueue(new MockResponse()
+                .setResponseCode(304)
+                .setHeader("Cache-Control", "no-cache, private")
+                .setHeader("ETag", "\"v1\""));
+        Request revalidate = new Request.Builder()
+                .url(server.url("/api/v1/user"))
+                .cacheControl(new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build())
+                .build();
+        try (Response response = client.newCall(revalidate).execute()) {
+            assertEquals("profile", response.body().string());
+        }
+        server.takeRequest();
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+
+        // Still within max-age, so this one never reaches the server
+        try (Response response = get("/api/v1/user")) {
+            assertEquals("profile", response.body().string());
+            assertNull(response.networkResponse());
+            assertEquals("private, max-age=60", response.header("Cache-Control"));
+            assertEquals("Authorization, Accept", response.header("Vary"));
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private Response get(String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url(path)).build()).execute();
+    }
+}
@@ -0,0 +1,74 @@
+package app.hub.api;
+
+import com.google.gson.stream.JsonReader;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CborReaderTest {
+
+    @Test
+    public void readsLongTextAcrossChunks() throws IOException {
+        char[] text = new char[20000];
+        Arrays.fill(text, 'x');
+        byte[] utf8 = new String(text).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+        // Text string, 2-byte length
+        cbor.write(0x79);
+        cbor.write(utf8.length >> 8);
+        cbor.write(utf8.length & 0xff);
+        cbor.write(utf8, 0, utf8.length);
+        try (JsonReader reader = reader(cbor.toByteArray())) {
+            assertEquals(new String(text), reader.nextString());
+        }
+    }
+
+    @Test
+    public void lengthPastTheEndOfTheBodyIsAnEofNotAnAllocation() throws IOException {
+        // Text string claiming 15 MB, followed by two bytes
+        byte[] cbor = {0x7a, 0x00, (byte) 0xf0, 0x00, 0x00, 'a', 'b'};
+        try (JsonReader reader = reader(cbor)) {
+            reader.nextString();
+            fail("Read a string longer than the body");
+        } catch (EOFException expected) {
+            // Only the bytes that arrived were buffered
+        }
+    }
+
+    @Test
+    public void absurdLengthIsRejectedUpFront() throws IOException {
+        // Text string with an 8-byte length of 2^40
+        byte[] cbor = {0x7b, 0, 0, 0x01, 0, 0, 0, 0, 0};
+        try (JsonReader reader = reader(cbor)) {
+            reader.nextString();
+            fail("Accepted a 1 TB string");
+        } catch (EOFException e) {
+            fail("Should be rejected before reading");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().startsWith("String too long"));
+        }
+    }
+
+    @Test
+    public void indefiniteTextJoinsItsChunks() throws IOException {
+        // (_ "ab", "c")
+        byte[] cbor = {0x7f, 0x62, 'a', 'b', 0x61, 'c', (byte) 0xff};
+        try (JsonReader reader = reader(cbor)) {
+            assertEquals("abc", reader.nextString());
+        }
+    }
+
+    private static JsonReader reader(byte[] cbor) {
+        return new CborReader(new ByteArrayInputStream(cbor));
+    }
+}
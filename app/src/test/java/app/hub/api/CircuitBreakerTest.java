@@ -0,0 +1,242 @@
+package app.hub.api;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakerTest {
+    private static final String TICKETS = "http://localhost/api/v1/tickets";
+
+    private interface Step {
+        Response respond(Interceptor.Chain chain) throws IOException;
+    }
+
+    private final BlockingQueue<Step> steps = new LinkedBlockingQueue<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private volatile long now = 1_000_000;
+    private volatile int networkCalls;
+
+    private final CircuitBreaker breaker = new CircuitBreaker() {
+        @Override
+        long elapsedRealtime() {
+            return now;
+        }
+    };
+
+    private final OkHttpClient client = new OkHttpClient.Builder()
+            .addInterceptor(breaker)
+            .addInterceptor(chain -> {
+                synchronized (this) {
+                    networkCalls++;
+                }
+                Step step = steps.poll();
+                if (step == null) {
+                    throw new AssertionError("Unexpected call to " + chain.request().url());
+                }
+                return step.respond(chain);
+            })
+            .build();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailuresAndFailsFast() throws IOException {
+        for (int i = 1; i < CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            steps.add(i % 2 == 0 ? status(503) : chain -> {
+                throw new IOException("Connection reset");
+            });
+            callQuietly(TICKETS);
+        }
+        // Anything but a 5xx resets the count, a 404 included
+        steps.add(status(404));
+        assertEquals(404, call(TICKETS));
+        tripTickets();
+
+        assertOpen(TICKETS, CircuitBreaker.OPEN_MS);
+        now += 4_000;
+        assertOpen(TICKETS + "/5", CircuitBreaker.OPEN_MS - 4_000);
+        assertEquals(2 * CircuitBreaker.FAILURE_THRESHOLD, networkCalls);
+    }
+
+    @Test
+    public void groupsAreSeparateAndMatchWholeSegments() throws IOException {
+        tripTickets();
+        assertOpen(TICKETS, CircuitBreaker.OPEN_MS);
+
+        steps.add(status(200));
+        assertEquals(200, call("http://localhost/api/v1/user"));
+        steps.add(status(200));
+        assertEquals(200, call("http://localhost/api/v1/ticketsX"));
+        assertEquals(CircuitBreaker.GROUP_TICKETS, CircuitBreaker.groupFor("/api/v1/tickets/5/comments"));
+        assertEquals(CircuitBreaker.GROUP_OTHER, CircuitBreaker.groupFor("/api/v1/ticketsX"));
+        assertEquals(CircuitBreaker.GROUP_OTHER, CircuitBreaker.groupFor("/api/v1/users"));
+    }
+
+    @Test
+    public void onlyOneProbeWhileHalfOpen() throws Exception {
+        tripTickets();
+        now += CircuitBreaker.OPEN_MS;
+
+        CountDownLatch probing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        steps.add(blocking(probing, release, 200));
+        Future<Integer> probe = executor.submit(() -> call(TICKETS));
+        await(probing);
+
+        // Everything else fails fast until the probe is back
+        assertOpen(TICKETS, 0);
+        release.countDown();
+        assertEquals(200, (int) probe.get(5, TimeUnit.SECONDS));
+
+        steps.add(status(200));
+        assertEquals(200, call(TICKETS));
+    }
+
+    @Test
+    public void failedProbesDoubleTheOpenWindowUpToTheCap() throws IOException {
+        tripTickets();
+        long expected = CircuitBreaker.OPEN_MS;
+        for (int probe = 0; probe < 6; probe++) {
+            now += expected;
+            steps.add(status(503));
+            assertEquals(503, call(TICKETS));
+            expected = Math.min(CircuitBreaker.MAX_OPEN_MS, expected * 2);
+            assertOpen(TICKETS, expected);
+        }
+        assertEquals(CircuitBreaker.MAX_OPEN_MS, expected);
+
+        // A successful probe closes the circuit and starts over from the first window
+        now += expected;
+        steps.add(status(200));
+        assertEquals(200, call(TICKETS));
+        tripTickets();
+        assertOpen(TICKETS, CircuitBreaker.OPEN_MS);
+    }
+
+    @Test
+    public void probeThatCrashesLetsTheNextCallProbe() throws IOException {
+        tripTickets();
+        now += CircuitBreaker.OPEN_MS;
+        steps.add(chain -> {
+            throw new IllegalStateException("Bug in a converter");
+        });
+        try {
+            call(TICKETS);
+            fail("Probe should have thrown");
+        } catch (IllegalStateException expected) {
+            // Thrown on through the breaker
+        }
+
+        // No waiting for another open window
+        steps.add(status(200));
+        assertEquals(200, call(TICKETS));
+        steps.add(status(200));
+        assertEquals(200, call(TICKETS));
+    }
+
+    @Test
+    public void lateResultsFromBeforeTheTripDoNotEndHalfOpen() throws Exception {
+        CountDownLatch staleStarted = new CountDownLatch(1);
+        CountDownLatch staleRelease = new CountDownLatch(1);
+        steps.add(blocking(staleStarted, staleRelease, 200));
+        Future<Integer> stale = executor.submit(() -> call(TICKETS));
+        await(staleStarted);
+
+        tripTickets();
+        now += CircuitBreaker.OPEN_MS;
+        CountDownLatch probing = new CountDownLatch(1);
+        CountDownLatch probeRelease = new CountDownLatch(1);
+        steps.add(blocking(probing, probeRelease, 503));
+        Future<Integer> probe = executor.submit(() -> call(TICKETS));
+        await(probing);
+
+        // The old call comes back fine, but it was not the probe
+        staleRelease.countDown();
+        assertEquals(200, (int) stale.get(5, TimeUnit.SECONDS));
+        assertOpen(TICKETS, 0);
+
+        probeRelease.countDown();
+        assertEquals(503, (int) probe.get(5, TimeUnit.SECONDS));
+        assertOpen(TICKETS, 2 * CircuitBreaker.OPEN_MS);
+    }
+
+    private void tripTickets() throws IOException {
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD; i++) {
+            steps.add(status(500));
+            assertEquals(500, call(TICKETS));
+        }
+    }
+
+    private void assertOpen(String url, long retryInMillis) throws IOException {
+        int before = networkCalls;
+        try {
+            call(url);
+            fail("Circuit should be open for " + url);
+        } catch (CircuitBreaker.CircuitOpenException expected) {
+            assertEquals(retryInMillis, expected.getRetryInMillis());
+        }
+        assertEquals("Reached the network", before, networkCalls);
+    }
+
+    private int call(String url) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+            return response.code();
+        }
+    }
+
+    private void callQuietly(String url) {
+        try {
+            call(url);
+        } catch (IOException expected) {
+            // Counted as a failure
+        }
+    }
+
+    private static Step status(int code) {
+        return chain -> new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("Status " + code)
+                .body(ResponseBody.create("", null))
+                .build();
+    }
+
+    private static Step blocking(CountDownLatch started, CountDownLatch release, int code) {
+        return chain -> {
+            started.countDown();
+            await(release);
+            return status(code).respond(chain);
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue("Timed out", latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
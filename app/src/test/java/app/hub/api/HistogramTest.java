@@ -0,0 +1,136 @@
+package app.hub.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramTest {
+
+    @Test
+    public void smallValuesGetABucketEach() {
+        for (long value = 0; value < 16; value++) {
+            assertEquals(value, Histogram.indexOf(value));
+            assertEquals(value, Histogram.upperBound((int) value));
+        }
+    }
+
+    @Test
+    public void bucketEdgesAreContiguous() {
+        assertEquals(16, Histogram.indexOf(16));
+        assertEquals(31, Histogram.indexOf(31));
+        // From 32 on every bucket is two or more values wide
+        assertEquals(32, Histogram.indexOf(32));
+        assertEquals(32, Histogram.indexOf(33));
+        assertEquals(33, Histogram.indexOf(34));
+        assertEquals(33, Histogram.upperBound(32));
+
+        int last = Histogram.indexOf(Long.MAX_VALUE);
+        for (int index = 0; index < last; index++) {
+            long upper = Histogram.upperBound(index);
+            assertEquals("upper bound of " + index, index, Histogram.indexOf(upper));
+            assertEquals("value after " + index, index + 1, Histogram.indexOf(upper + 1));
+        }
+    }
+
+    @Test
+    public void bucketsAreWithinASixteenthOfTheirValues() {
+        for (long value = 16; value < (1L << 31); value = value * 3 / 2 + 7) {
+            long upper = Histogram.upperBound(Histogram.indexOf(value));
+            assertTrue(value + " -> " + upper, upper >= value);
+            assertTrue(value + " -> " + upper, upper - value <= value / 16);
+        }
+    }
+
+    @Test
+    public void hugeValuesLandInTheLastBucket() {
+        int last = Histogram.indexOf(Long.MAX_VALUE);
+        assertEquals(last, Histogram.indexOf(1L << 40));
+        Histogram histogram = new Histogram();
+        histogram.record(1L << 40);
+        // The percentile never reports more than was actually recorded
+        assertEquals(1L << 40, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void percentilesOfAUniformSpread() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        double[] percentiles = {1, 25, 50, 90, 95, 99, 99.9};
+        for (double percentile : percentiles) {
+            long exact = (long) Math.ceil(percentile * 100);
+            long reported = histogram.getPercentile(percentile);
+            assertTrue(percentile + ": " + reported + " vs " + exact,
+                    reported >= exact && reported <= exact + exact / 16);
+        }
+        assertEquals(10_000, histogram.getPercentile(100));
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5000.5, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    public void percentilesOfASkewedSpread() {
+        Histogram histogram = new Histogram();
+        // 98 fast calls and two slow ones
+        for (int i = 0; i < 98; i++) {
+            histogram.record(120);
+        }
+        histogram.record(5_000);
+        histogram.record(90_000);
+        assertEquals(Histogram.upperBound(Histogram.indexOf(120)), histogram.getPercentile(50));
+        assertEquals(Histogram.upperBound(Histogram.indexOf(120)), histogram.getPercentile(98));
+        assertEquals(Histogram.upperBound(Histogram.indexOf(5_000)), histogram.getPercentile(99));
+        assertEquals(90_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void emptyAndNegative() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMean(), 0);
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void resetForgetsEverything() {
+        Histogram histogram = new Histogram();
+        histogram.record(1_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(99));
+        histogram.record(7);
+        assertEquals(7, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void concurrentRecordsAreAllCounted() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    histogram.record(i % 1000 + offset);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(1002, histogram.getMax());
+        assertEquals(histogram.getMax(), histogram.getPercentile(100));
+    }
+}
@@ -0,0 +1,219 @@
+package app.hub.api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.reflect.TypeToken;
+import com.servicehub.model.ChatRequest;
+import com.servicehub.model.ChatResponse;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ModelTypeAdapters against Gson's reflective binding, which it replaces.
+ *
+ * The JSON is generated from each model's declared fields, so a field added to a model but
+ * not to its adapter makes these tests fail. Every model is read in several shapes (typical
+ * values, values Gson coerces, explicit nulls, missing fields) with unknown keys mixed in,
+ * and both results must serialise to the same tree.
+ */
+public class ModelTypeAdaptersTest {
+
+    private static final List<Class<?>> RESPONSES = Arrays.asList(
+            CreateTicketResponse.class, LogoutResponse.class, VerificationResponse.class,
+            LoginResponse.class, LoginResponse.Data.class, LoginResponse.User.class,
+            RegisterResponse.class, RegisterResponse.Data.class, RegisterResponse.User.class,
+            RegisterResponse.Errors.class,
+            VerifyEmailResponse.class, VerifyEmailResponse.Data.class, VerifyEmailResponse.User.class,
+            UserResponse.class, UserResponse.Data.class,
+            TicketsResponse.class, TicketsResponse.Data.class, TicketsResponse.Ticket.class,
+            TicketsResponse.Status.class, TicketsResponse.User.class, TicketsResponse.Meta.class,
+            TicketResponse.class, TicketResponse.Data.class, TicketResponse.Comment.class,
+            ChatResponse.class);
+
+    private static final List<Class<?>> REQUESTS = Arrays.asList(
+            LoginRequest.class, RegisterRequest.class, VerificationRequest.class,
+            VerifyEmailRequest.class, CreateTicketRequest.class, ChatRequest.class);
+
+    // Same configuration as ApiClient, with and without the hand-written adapters
+    private static final Gson FACTORY = new GsonBuilder()
+            .registerTypeAdapterFactory(new ModelTypeAdapters())
+            .setLenient()
+            .create();
+    private static final Gson REFLECTIVE = new GsonBuilder().setLenient().create();
+    // Dumps any model field by field, including nulls, for comparison
+    private static final Gson DUMP = new GsonBuilder().serializeNulls().create();
+
+    private enum Shape {
+        // Numbers as numbers, strings as strings
+        TYPICAL,
+        // Numbers as numeric strings, strings as numbers, booleans as strings
+        COERCED,
+        // Objects present, every scalar and array element null
+        NULL_LEAVES,
+        // Every field explicitly null
+        NULLS,
+        // {}
+        EMPTY
+    }
+
+    @Test
+    public void everyModelHasAHandWrittenAdapter() {
+        ModelTypeAdapters factory = new ModelTypeAdapters();
+        for (Class<?> type : RESPONSES) {
+            assertNotNull(type.getName(), factory.create(REFLECTIVE, TypeToken.get(type)));
+        }
+        for (Class<?> type : REQUESTS) {
+            assertNotNull(type.getName(), factory.create(REFLECTIVE, TypeToken.get(type)));
+        }
+    }
+
+    @Test
+    public void responsesReadLikeReflectiveGson() {
+        for (Class<?> type : RESPONSES) {
+            for (Shape shape : Shape.values()) {
+                String json = sample(type, shape, new int[]{0}).toString();
+                Object expected = REFLECTIVE.fromJson(json, type);
+                Object actual = FACTORY.fromJson(json, type);
+                assertEquals(type.getName() + " " + shape + ": " + json,
+                        DUMP.toJsonTree(expected), DUMP.toJsonTree(actual));
+            }
+        }
+    }
+
+    @Test
+    public void requestsWriteLikeReflectiveGson() {
+        for (Class<?> type : REQUESTS) {
+            for (Shape shape : new Shape[]{Shape.TYPICAL, Shape.NULLS}) {
+                Object request = REFLECTIVE.fromJson(sample(type, shape, new int[]{0}), type);
+                assertEquals(type.getName() + " " + shape,
+                        REFLECTIVE.toJsonTree(request), FACTORY.toJsonTree(request));
+            }
+        }
+    }
+
+    @Test
+    public void nullTopLevelValueReadsAsNull() {
+        for (Class<?> type : RESPONSES) {
+            assertEquals(type.getName(), null, FACTORY.fromJson("null", type));
+        }
+    }
+
+    @Test
+    public void numericBooleansAreAccepted() {
+        // Laravel sends tinyint columns as 0/1; reflective Gson would throw here
+        assertTrue(FACTORY.fromJson("{\"success\":1}", LoginResponse.class).isSuccess());
+        assertFalse(FACTORY.fromJson("{\"success\":0}", LoginResponse.class).isSuccess());
+    }
+
+    @Test
+    public void ticketListKeepsOrderAndNullEntries() {
+        String json = "{\"success\":true,\"data\":{\"tickets\":[{\"id\":\"3\",\"title\":\"Leak\"},null,"
+                + "{\"id\":1,\"status\":{\"id\":2,\"name\":\"Open\",\"color\":\"#fff\",\"extra\":[1,2]}}],"
+                + "\"deleted_ids\":[\"5\",6],\"meta\":{\"current_page\":1,\"last_page\":\"2\"}}}";
+        TicketsResponse response = FACTORY.fromJson(json, TicketsResponse.class);
+        List<TicketsResponse.Ticket> tickets = response.getData().getTickets();
+        assertEquals(3, tickets.size());
+        assertEquals(3, tickets.get(0).getId());
+        assertEquals(null, tickets.get(1));
+        assertEquals("Open", tickets.get(2).getStatus().getName());
+        assertEquals(Arrays.asList(5, 6), response.getData().getDeleted_ids());
+        assertEquals(2, response.getData().getMeta().getLast_page());
+        assertEquals(DUMP.toJsonTree(REFLECTIVE.fromJson(json, TicketsResponse.class)), DUMP.toJsonTree(response));
+    }
+
+    /**
+     * A JSON value for {@code type} in the given shape. counter makes every value distinct, so
+     * two fields read into each other's slot do not compare equal by accident.
+     */
+    static JsonElement sample(Type type, Shape shape, int[] counter) {
+        int n = ++counter[0];
+        if (type == int.class || type == Integer.class) {
+            if (shape == Shape.NULL_LEAVES || shape == Shape.NULLS) {
+                return JsonNull.INSTANCE;
+            }
+            return shape == Shape.COERCED ? new JsonPrimitive(String.valueOf(n)) : new JsonPrimitive(n);
+        }
+        if (type == boolean.class) {
+            if (shape == Shape.NULL_LEAVES || shape == Shape.NULLS) {
+                return JsonNull.INSTANCE;
+            }
+            return shape == Shape.COERCED ? new JsonPrimitive("true") : new JsonPrimitive(true);
+        }
+        if (type == String.class) {
+            if (shape == Shape.NULL_LEAVES || shape == Shape.NULLS) {
+                return JsonNull.INSTANCE;
+            }
+            return shape == Shape.COERCED ? new JsonPrimitive(1000 + n) : new JsonPrimitive("value " + n);
+        }
+        if (type == String[].class) {
+            return array(String.class, shape, counter);
+        }
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == List.class) {
+            return array(((ParameterizedType) type).getActualTypeArguments()[0], shape, counter);
+        }
+        if (!(type instanceof Class) || !isModel((Class<?>) type)) {
+            throw new AssertionError("No sample for " + type + "; teach this test the new field type");
+        }
+        if (shape == Shape.NULLS && counter[0] > 1) {
+            return JsonNull.INSTANCE;
+        }
+        JsonObject object = new JsonObject();
+        if (shape == Shape.EMPTY) {
+            return object;
+        }
+        object.addProperty("unknown_before", "ignored");
+        for (Class<?> c = (Class<?>) type; c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                object.add(field.getName(), sample(field.getGenericType(), shape, counter));
+            }
+        }
+        JsonObject unknown = new JsonObject();
+        JsonArray nested = new JsonArray();
+        nested.add(1);
+        nested.add("two");
+        nested.add(JsonNull.INSTANCE);
+        nested.add(new JsonObject());
+        unknown.add("nested", nested);
+        object.add("unknown_after", unknown);
+        return object;
+    }
+
+    private static JsonElement array(Type element, Shape shape, int[] counter) {
+        if (shape == Shape.NULLS) {
+            return JsonNull.INSTANCE;
+        }
+        JsonArray array = new JsonArray();
+        if (shape == Shape.EMPTY) {
+            return array;
+        }
+        array.add(sample(element, shape, counter));
+        array.add(shape == Shape.NULL_LEAVES ? JsonNull.INSTANCE : sample(element, shape, counter));
+        return array;
+    }
+
+    private static boolean isModel(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("app.hub.api.") || name.startsWith("com.servicehub.model.");
+    }
+}
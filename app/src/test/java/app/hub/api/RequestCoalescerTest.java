@@ -0,0 +1,116 @@
+package app.hub.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class RequestCoalescerTest {
+    private MockWebServer server;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void waiterGoesToTheNetworkWhenTheLeaderCrashes() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch waiterJoined = new CountDownLatch(1);
+        AtomicBoolean crashed = new AtomicBoolean();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new RequestCoalescer())
+                .addInterceptor(chain -> {
+                    if (crashed.compareAndSet(false, true)) {
+                        leaderStarted.countDown();
+                        await(waiterJoined);
+                        throw new IllegalStateException("Bug further down the chain");
+                    }
+                    return chain.proceed(chain.request());
+                })
+                .build();
+        server.enqueue(new MockResponse().setBody("tickets"));
+        Request request = new Request.Builder().url(server.url("/api/v1/tickets/7")).build();
+
+        Future<String> leader = executor.submit(() -> body(client, request));
+        await(leaderStarted);
+        Future<String> waiter = executor.submit(() -> body(client, request));
+        // Let the waiter reach follow() before the leader throws
+        Thread.sleep(100);
+        waiterJoined.countDown();
+
+        try {
+            leader.get(5, TimeUnit.SECONDS);
+            fail("Leader should have thrown");
+        } catch (ExecutionException expected) {
+            assertEquals(IllegalStateException.class, expected.getCause().getClass());
+        }
+        assertEquals("tickets", waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void identicalRequestsShareOneNetworkCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new RequestCoalescer())
+                .addInterceptor(chain -> {
+                    await(release);
+                    return chain.proceed(chain.request());
+                })
+                .build();
+        server.enqueue(new MockResponse().setBody("profile"));
+        Request request = new Request.Builder().url(server.url("/api/v1/user")).build();
+
+        Future<String> first = executor.submit(() -> body(client, request));
+        Future<String> second = executor.submit(() -> body(client, request));
+        Thread.sleep(200);
+        release.countDown();
+
+        assertEquals("profile", first.get(5, TimeUnit.SECONDS));
+        assertEquals("profile", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private static String body(OkHttpClient client, Request request) throws IOException {
+        try (Response response = client.newCall(request).execute()) {
+            return response.body().string();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new AssertionError("Timed out");
+            }
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package app.hub.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.GzipSource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RequestCompressionTest {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void largeJsonToAnAllowedEndpointIsGzipped() throws Exception {
+        OkHttpClient client = client(new RequestCompression(Collections.singletonList(server.getHostName())));
+        String json = ticketJson(2000);
+        server.enqueue(new MockResponse().setResponseCode(201));
+        post(client, "/api/v1/tickets", RequestBody.create(json, JSON));
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("gzip", request.getHeader("Content-Encoding"));
+        assertEquals(String.valueOf(request.getBodySize()), request.getHeader("Content-Length"));
+        assertTrue(request.getBodySize() < json.length());
+        assertEquals(json, gunzip(request.getBody()));
+    }
+
+    @Test
+    public void otherRequestsAreSentAsIs() throws Exception {
+        OkHttpClient client = client(new RequestCompression(Collections.singletonList(server.getHostName())));
+        // Below the threshold
+        assertSentAsIs(client, "POST", "/api/v1/tickets", RequestBody.create(ticketJson(200), JSON));
+        // Not JSON
+        assertSentAsIs(client, "POST", "/api/v1/tickets",
+                RequestBody.create(ticketJson(2000), MediaType.get("text/plain")));
+        // Not on the allowlist, by path or by method
+        assertSentAsIs(client, "POST", "/api/v1/register", RequestBody.create(ticketJson(2000), JSON));
+        assertSentAsIs(client, "POST", "/api/v1/ticketsX", RequestBody.create(ticketJson(2000), JSON));
+        assertSentAsIs(client, "PUT", "/api/v1/tickets/5", RequestBody.create(ticketJson(2000), JSON));
+
+        // A host nobody vouched for
+        OkHttpClient untrusted = client(new RequestCompression(Collections.emptyList()));
+        assertSentAsIs(untrusted, "POST", "/api/v1/tickets", RequestBody.create(ticketJson(2000), JSON));
+    }
+
+    @Test
+    public void learnsSupportFromAcceptEncoding() throws Exception {
+        OkHttpClient client = client(new RequestCompression(Collections.emptyList()));
+        server.enqueue(new MockResponse().setHeader("Accept-Encoding", "br, GZIP"));
+        post(client, "/api/v1/tickets", RequestBody.create(ticketJson(2000), JSON));
+        assertNull(server.takeRequest().getHeader("Content-Encoding"));
+
+        server.enqueue(new MockResponse().setResponseCode(201));
+        post(client, "/api/v1/chatbot", RequestBody.create(ticketJson(2000), JSON));
+        assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+    }
+
+    @Test
+    public void unsupportedMediaTypeFallsBackToPlainBodies() throws Exception {
+        OkHttpClient client = client(new RequestCompression(Collections.singletonList(server.getHostName())));
+        String json = ticketJson(2000);
+        server.enqueue(new MockResponse().setResponseCode(415));
+        server.enqueue(new MockResponse().setResponseCode(201));
+        assertEquals(201, post(client, "/api/v1/tickets", RequestBody.create(json, JSON)));
+
+        assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+        RecordedRequest resent = server.takeRequest();
+        assertNull(resent.getHeader("Content-Encoding"));
+        assertEquals(json, resent.getBody().readUtf8());
+
+        // And the host is not asked again
+        assertSentAsIs(client, "POST", "/api/v1/tickets", RequestBody.create(json, JSON));
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void buildConfigHostsAreTrimmedAndTrusted() throws Exception {
+        assertEquals(Arrays.asList("api.example.com", "Staging.example.com"),
+                RequestCompression.parseHosts(" api.example.com, ,Staging.example.com,"));
+        assertTrue(RequestCompression.parseHosts("").isEmpty());
+
+        OkHttpClient client = client(new RequestCompression(
+                RequestCompression.parseHosts("other.example.com, " + server.getHostName().toUpperCase())));
+        server.enqueue(new MockResponse().setResponseCode(201));
+        post(client, "/api/v1/tickets", RequestBody.create(ticketJson(2000), JSON));
+        assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+    }
+
+    private void assertSentAsIs(OkHttpClient client, String method, String path, RequestBody body)
+            throws Exception {
+        Buffer expected = new Buffer();
+        body.writeTo(expected);
+        server.enqueue(new MockResponse());
+        Request request = new Request.Builder().url(server.url(path)).method(method, body).build();
+        try (Response response = client.newCall(request).execute()) {
+            assertFalse(response.code() == 415);
+        }
+        RecordedRequest recorded = server.takeRequest();
+        assertNull(method + " " + path, recorded.getHeader("Content-Encoding"));
+        assertEquals(expected.readUtf8(), recorded.getBody().readUtf8());
+    }
+
+    private int post(OkHttpClient client, String path, RequestBody body) throws IOException {
+        Request request = new Request.Builder().url(server.url(path)).post(body).build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.code();
+        }
+    }
+
+    private static OkHttpClient client(RequestCompression compression) {
+        return new OkHttpClient.Builder().addInterceptor(compression).build();
+    }
+
+    private static String gunzip(Buffer body) throws IOException {
+        Buffer inflated = new Buffer();
+        try (GzipSource source = new GzipSource(body)) {
+            while (source.read(inflated, 8192) != -1) {
+                // Keep reading
+            }
+        }
+        return inflated.readUtf8();
+    }
+
+    // A ticket body of roughly the given size, repetitive like real descriptions
+    private static String ticketJson(int size) {
+        StringBuilder description = new StringBuilder();
+        while (description.length() < size) {
+            description.append("The kitchen sink is leaking again. ");
+        }
+        return "{\"title\":\"Leak\",\"description\":\"" + description + "\",\"service_type\":\"plumbing\"}";
+    }
+}
@@ -0,0 +1,123 @@
+package app.hub.api;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryPolicyTest {
+    private static final Request REQUEST = new Request.Builder().url("http://localhost/api/v1/tickets").build();
+
+    @Test
+    public void backoffIsFullJitterUnderADoublingCap() {
+        // Cap for retry 1, 2, 3, ...: BASE_DELAY_MS doubling up to MAX_DELAY_MS
+        long[] caps = {500, 1000, 2000, 4000, 8000, 8000, 8000};
+        for (int retry = 1; retry <= caps.length + 40; retry++) {
+            long cap = caps[Math.min(retry, caps.length) - 1];
+            long max = 0;
+            for (int i = 0; i < 2000; i++) {
+                long delay = RetryPolicy.backoffMillis(retry);
+                assertTrue("retry " + retry + ": " + delay, delay >= 0 && delay <= cap);
+                max = Math.max(max, delay);
+            }
+            // Spread over the whole range, not just the bottom of it
+            assertTrue("retry " + retry + " never got near " + cap + ": " + max, max > cap * 9 / 10);
+        }
+    }
+
+    @Test
+    public void rulesMatchWholePathSegments() {
+        assertEquals(1, RetryPolicy.ruleFor("/api/v1/chatbot").maxAttempts);
+        assertEquals(1, RetryPolicy.ruleFor("/api/v1/chatbot/stream").maxAttempts);
+        assertTrue(RetryPolicy.ruleFor("/api/v1/login").repeatable);
+        // Not the chatbot or login endpoints, just longer names starting the same way
+        assertEquals(RetryPolicy.DEFAULT_MAX_ATTEMPTS, RetryPolicy.ruleFor("/api/v1/chatbots").maxAttempts);
+        assertFalse(RetryPolicy.ruleFor("/api/v1/login-history").repeatable);
+        assertEquals(RetryPolicy.DEFAULT_MAX_ATTEMPTS, RetryPolicy.ruleFor("/api/v1/register2").maxAttempts);
+    }
+
+    @Test
+    public void retryAfterInSeconds() {
+        assertEquals(120_000, RetryPolicy.retryAfterMillis(response("120")));
+        assertEquals(0, RetryPolicy.retryAfterMillis(response("0")));
+        assertEquals(3_000, RetryPolicy.retryAfterMillis(response(" 3 ")));
+        // Negative makes no sense; retry right away rather than never
+        assertEquals(0, RetryPolicy.retryAfterMillis(response("-5")));
+    }
+
+    @Test
+    public void retryAfterAsHttpDate() {
+        long in90s = System.currentTimeMillis() + 90_000;
+        long delay = RetryPolicy.retryAfterMillis(response(httpDate(in90s)));
+        // HTTP dates have whole seconds
+        assertTrue(String.valueOf(delay), delay > 88_000 && delay <= 90_000);
+        assertEquals(0, RetryPolicy.retryAfterMillis(response("Thu, 01 Jan 2015 00:00:00 GMT")));
+    }
+
+    @Test
+    public void missingOrUnreadableRetryAfterFallsBackToBackoff() {
+        assertEquals(-1, RetryPolicy.retryAfterMillis(response(null)));
+        assertEquals(-1, RetryPolicy.retryAfterMillis(response("soon")));
+        assertEquals(-1, RetryPolicy.retryAfterMillis(response("")));
+    }
+
+    @Test
+    public void cancellingTheCallEndsTheWait() throws InterruptedException {
+        Call call = new OkHttpClient().newCall(REQUEST);
+        ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor();
+        canceller.schedule(call::cancel, 200, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        try {
+            RetryPolicy.sleep(call, RetryPolicy.MAX_RETRY_AFTER_MS);
+            fail("Slept through a cancel");
+        } catch (IOException expected) {
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(waited + " ms", waited < 200 + 3 * RetryPolicy.CANCEL_POLL_MS);
+        } finally {
+            canceller.shutdownNow();
+        }
+    }
+
+    @Test
+    public void uncancelledWaitLastsTheFullDelay() throws IOException {
+        Call call = new OkHttpClient().newCall(REQUEST);
+        long start = System.nanoTime();
+        RetryPolicy.sleep(call, 250);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 250);
+    }
+
+    private static String httpDate(long millis) {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(new Date(millis));
+    }
+
+    private static Response response(String retryAfter) {
+        Response.Builder builder = new Response.Builder()
+                .request(REQUEST)
+                .protocol(Protocol.HTTP_1_1)
+                .code(503)
+                .message("Service Unavailable");
+        if (retryAfter != null) {
+            builder.header("Retry-After", retryAfter);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,282 @@
+package app.hub.api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Serves the same fixtures as JSON and as CBOR through the app's Retrofit setup (Accept
+ * interceptor, WireFormat converter, TicketListStream) and checks both come out as the same
+ * models.
+ */
+public class WireFormatTest {
+    private static final String JSON = "application/json";
+    private static final String CBOR = "application/cbor";
+
+    // Dumps any model field by field, including nulls, for comparison
+    private static final Gson DUMP = new GsonBuilder().serializeNulls().create();
+
+    private MockWebServer server;
+    private ApiService api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        // Same Gson as ApiClient.createGson()
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapters())
+                .setLenient()
+                .create();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient.Builder().addInterceptor(new WireFormat()).build())
+                .addConverterFactory(WireFormat.converterFactory(gson))
+                .build()
+                .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void ticketListReadsTheSameFromJsonAndCbor() throws Exception {
+        JsonObject fixture = ticketsFixture();
+
+        JsonElement fromJson = streamTickets(json(fixture));
+        JsonElement fromCbor = streamTickets(cbor(fixture, false));
+        JsonElement fromIndefiniteCbor = streamTickets(cbor(fixture, true));
+
+        assertEquals(fromJson, fromCbor);
+        assertEquals(fromJson, fromIndefiniteCbor);
+        assertEquals(30, fromJson.getAsJsonObject().getAsJsonArray("tickets").size());
+    }
+
+    @Test
+    public void ticketDetailConvertsTheSameFromJsonAndCbor() throws Exception {
+        JsonObject fixture = ticketFixture();
+
+        server.enqueue(json(fixture));
+        TicketResponse fromJson = api.getTicket(7).execute().body();
+        server.enqueue(cbor(fixture, false));
+        TicketResponse fromCbor = api.getTicket(7).execute().body();
+
+        assertEquals(DUMP.toJsonTree(fromJson), DUMP.toJsonTree(fromCbor));
+        assertEquals("Caf\u00E9 \u2615 d\u00E9j\u00E0 vu \uD83D\uDE00", fromCbor.getData().getComments().get(1).getComment());
+    }
+
+    @Test
+    public void onlyTheBulkDownloadAsksForCbor() throws Exception {
+        server.enqueue(json(ticketsFixture()));
+        api.getTickets("mine", null, 1, 50).execute().body().close();
+        RecordedRequest tickets = server.takeRequest();
+        assertEquals(WireFormat.ACCEPT, tickets.getHeader("Accept"));
+
+        server.enqueue(new MockResponse().setResponseCode(401).setHeader("Content-Type", JSON)
+                .setBody("{\"success\":false,\"message\":\"Invalid credentials\"}"));
+        Response<LoginResponse> login = api.login(new LoginRequest("a@example.com", "secret")).execute();
+        RecordedRequest loginRequest = server.takeRequest();
+        // Screens read login and register error bodies as JSON text
+        assertNull(loginRequest.getHeader("Accept"));
+        assertTrue(login.errorBody().string().contains("Invalid credentials"));
+    }
+
+    private JsonElement streamTickets(MockResponse response) throws IOException {
+        server.enqueue(response);
+        ResponseBody body = api.getTickets("mine", null, 1, 50).execute().body();
+        List<TicketsResponse.Ticket> streamed = new ArrayList<>();
+        TicketsResponse rest = TicketListStream.read(body, 7, streamed::addAll);
+        rest.getData().setTickets(streamed);
+        return DUMP.toJsonTree(rest.getData());
+    }
+
+    private static MockResponse json(JsonObject fixture) {
+        return new MockResponse().setHeader("Content-Type", JSON + "; charset=utf-8").setBody(fixture.toString());
+    }
+
+    private static MockResponse cbor(JsonObject fixture, boolean indefinite) {
+        Buffer body = new Buffer();
+        encode(fixture, indefinite, body);
+        return new MockResponse().setHeader("Content-Type", CBOR).setBody(body);
+    }
+
+    /**
+     * A tickets page with the awkward parts of real responses: non-ASCII text, nulls, numeric
+     * strings, floats, fields the app does not know, and arrays and strings long enough to
+     * need 1- and 2-byte CBOR lengths.
+     */
+    private static JsonObject ticketsFixture() {
+        JsonArray tickets = new JsonArray();
+        for (int i = 1; i <= 30; i++) {
+            JsonObject ticket = new JsonObject();
+            ticket.add("id", i % 3 == 0 ? new JsonPrimitive(String.valueOf(i)) : new JsonPrimitive(i));
+            ticket.addProperty("title", "Ticket " + i + (i % 4 == 0 ? " \u2013 na\u00EFve fa\u00E7ade \u2713" : ""));
+            ticket.addProperty("description", repeat("Water leaking under the sink. ", i));
+            ticket.addProperty("priority", i % 5 == 0 ? null : "normal");
+            JsonObject status = new JsonObject();
+            status.addProperty("id", i % 4 + 1);
+            status.addProperty("name", i % 7 == 0 ? null : "In progress");
+            status.addProperty("color", "#FFA000");
+            status.addProperty("weight", 0.75 * i);
+            ticket.add("status", status);
+            JsonObject customer = new JsonObject();
+            customer.addProperty("id", 1000 + i);
+            customer.addProperty("name", "Zo\u00EB \u00C5ngstr\u00F6m");
+            customer.addProperty("email", "customer" + i + "@example.com");
+            ticket.add("customer", customer);
+            ticket.add("assigned_staff", i % 2 == 0 ? null : customer);
+            ticket.addProperty("comments_count", i % 6);
+            ticket.addProperty("created_at", "2024-05-01T08:00:00.000000Z");
+            ticket.addProperty("updated_at", "2024-05-0" + (i % 9 + 1) + "T09:30:00.000000Z");
+            ticket.addProperty("is_urgent", i % 2 == 0);
+            ticket.addProperty("balance", -42 - i);
+            tickets.add(ticket);
+        }
+        JsonArray deleted = new JsonArray();
+        deleted.add(3);
+        deleted.add(300000);
+        deleted.add(70000);
+        JsonObject meta = new JsonObject();
+        meta.addProperty("current_page", 1);
+        meta.addProperty("last_page", "2");
+        meta.addProperty("total", 60);
+        meta.addProperty("per_page", 30);
+        JsonObject data = new JsonObject();
+        data.add("tickets", tickets);
+        data.add("deleted_ids", deleted);
+        data.add("meta", meta);
+        JsonObject root = new JsonObject();
+        root.addProperty("success", true);
+        root.addProperty("message", "OK");
+        root.add("data", data);
+        return root;
+    }
+
+    private static JsonObject ticketFixture() {
+        JsonObject ticket = ticketsFixture().getAsJsonObject("data").getAsJsonArray("tickets").get(6).getAsJsonObject();
+        JsonArray comments = new JsonArray();
+        String[] texts = {"On my way", "Caf\u00E9 \u2615 d\u00E9j\u00E0 vu \uD83D\uDE00", ""};
+        for (int i = 0; i < texts.length; i++) {
+            JsonObject comment = new JsonObject();
+            comment.addProperty("id", i + 1);
+            comment.addProperty("comment", texts[i]);
+            comment.add("user", ticket.get("customer"));
+            comment.addProperty("created_at", "2024-05-03T10:00:00.000000Z");
+            comments.add(comment);
+        }
+        ticket.add("comments", comments);
+        JsonObject root = new JsonObject();
+        root.addProperty("success", true);
+        root.add("data", ticket);
+        return root;
+    }
+
+    // Minimal JSON-tree-to-CBOR encoder; like real encoders it picks the shortest argument size
+    private static void encode(JsonElement value, boolean indefinite, Buffer out) {
+        if (value.isJsonNull()) {
+            out.writeByte(0xf6);
+        } else if (value.isJsonObject()) {
+            Set<Map.Entry<String, JsonElement>> members = value.getAsJsonObject().entrySet();
+            header(5, members.size(), indefinite, out);
+            for (Map.Entry<String, JsonElement> member : members) {
+                encode(new JsonPrimitive(member.getKey()), indefinite, out);
+                encode(member.getValue(), indefinite, out);
+            }
+            if (indefinite) {
+                out.writeByte(0xff);
+            }
+        } else if (value.isJsonArray()) {
+            JsonArray array = value.getAsJsonArray();
+            header(4, array.size(), indefinite, out);
+            for (JsonElement element : array) {
+                encode(element, indefinite, out);
+            }
+            if (indefinite) {
+                out.writeByte(0xff);
+            }
+        } else {
+            JsonPrimitive primitive = value.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.writeByte(primitive.getAsBoolean() ? 0xf5 : 0xf4);
+            } else if (primitive.isNumber()) {
+                BigDecimal number = primitive.getAsBigDecimal();
+                if (number.stripTrailingZeros().scale() <= 0) {
+                    long integer = number.longValueExact();
+                    argument(integer >= 0 ? 0 : 1, integer >= 0 ? integer : -1 - integer, out);
+                } else {
+                    out.writeByte(0xfb);
+                    out.writeLong(Double.doubleToLongBits(number.doubleValue()));
+                }
+            } else {
+                byte[] utf8 = primitive.getAsString().getBytes(StandardCharsets.UTF_8);
+                argument(3, utf8.length, out);
+                out.write(utf8);
+            }
+        }
+    }
+
+    private static void header(int major, int size, boolean indefinite, Buffer out) {
+        if (indefinite) {
+            out.writeByte(major << 5 | 31);
+        } else {
+            argument(major, size, out);
+        }
+    }
+
+    private static void argument(int major, long value, Buffer out) {
+        int type = major << 5;
+        if (value < 24) {
+            out.writeByte(type | (int) value);
+        } else if (value <= 0xff) {
+            out.writeByte(type | 24);
+            out.writeByte((int) value);
+        } else if (value <= 0xffff) {
+            out.writeByte(type | 25);
+            out.writeShort((int) value);
+        } else if (value <= 0xffffffffL) {
+            out.writeByte(type | 26);
+            out.writeInt((int) value);
+        } else {
+            out.writeByte(type | 27);
+            out.writeLong(value);
+        }
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package app.hub.data;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the matcher against the FAQ the app ships (unit tests run from the module directory).
+ */
+public class FaqMatcherTest {
+    private static FaqMatcher matcher;
+
+    @BeforeClass
+    public static void loadBundledFaq() throws IOException {
+        try (Reader corpus = Files.newBufferedReader(
+                Paths.get("src/main/res/raw/chatbot_faq.json"), StandardCharsets.UTF_8)) {
+            matcher = new FaqMatcher(corpus);
+        }
+    }
+
+    @Test
+    public void faqPhrasingsMatchTheirEntry() {
+        assertMatches("service_types", "What services do you offer?");
+        assertMatches("service_types", "hi there, what services do you offer");
+        assertMatches("ticket_status", "How do I check my ticket status");
+        assertMatches("verification_code", "I didn't get the verification code");
+        assertMatches("change_password", "how do I change my password");
+        assertMatches("logout", "how to log out");
+        assertMatches("ticket_photo", "can I attach a photo to my ticket");
+        assertMatches("create_ticket", "how do I create a new ticket");
+        assertMatches("edit_profile", "edit my name");
+        assertMatches("offline_ticket", "can I create a ticket without internet");
+    }
+
+    @Test
+    public void offTopicAndVagueQuestionsGoToTheServer() {
+        // Matches several entries equally
+        assertNull(matcher.match("ticket"));
+        assertNull(matcher.match("what is the weather today"));
+        // A service problem, not a question about the app
+        assertNull(matcher.match("my AC is broken and leaking water"));
+        assertNull(matcher.match(""));
+        assertNull(matcher.match("?!"));
+    }
+
+    @Test
+    public void tokenizeDropsStopWordsAndPluralS() {
+        assertEquals(Arrays.asList("service", "offer"), FaqMatcher.tokenize("What services do you offer?"));
+        assertEquals(Arrays.asList("not", "receive", "verification", "code"),
+                FaqMatcher.tokenize("I didn't receive my verification code"));
+        // Double s is not a plural
+        assertEquals(Arrays.asList("address", "bus"), FaqMatcher.tokenize("ADDRESS, bus"));
+    }
+
+    @Test
+    public void negationsAreKept() {
+        assertEquals(Arrays.asList("ticket", "not", "updating"), FaqMatcher.tokenize("my ticket is not updating"));
+        assertEquals(Arrays.asList("not", "log", "out"), FaqMatcher.tokenize("can't log out"));
+        assertEquals(Arrays.asList("not", "log", "out"), FaqMatcher.tokenize("can\u2019t log out"));
+        assertEquals(Arrays.asList("photo", "not", "attach"), FaqMatcher.tokenize("photo won't attach"));
+        assertEquals(Arrays.asList("not", "code"), FaqMatcher.tokenize("never got a code"));
+
+        // Not the same questions as their positive form
+        assertNull(matcher.match("my ticket is not updating"));
+        assertNull(matcher.match("my password is not working"));
+        assertNull(matcher.match("can't log out"));
+        assertNull(matcher.match("I don't want to create a ticket"));
+        // Entries written for the negated case still answer it
+        assertMatches("verification_code", "I never got my verification code");
+        assertMatches("offline_ticket", "my ticket did not send");
+    }
+
+    @Test
+    public void unreadableEntriesAreSkipped() throws IOException {
+        FaqMatcher partial = new FaqMatcher(new StringReader("["
+                + "{\"id\":\"no_answer\",\"questions\":[\"How do I log out?\"]},"
+                + "{\"id\":\"no_questions\",\"answer\":\"Nothing to match\",\"questions\":[\"the\"]},"
+                + "{\"id\":\"logout\",\"answer\":\"Use the button\",\"extra\":{\"a\":1},"
+                + "\"questions\":[\"How do I sign out?\"]}]"));
+        FaqMatcher.Answer answer = partial.match("sign out");
+        assertNotNull(answer);
+        assertEquals("logout", answer.getId());
+        assertEquals("Use the button", answer.getText());
+        assertNull(partial.match("log out"));
+
+        assertNull(new FaqMatcher(new StringReader("[]")).match("How do I log out?"));
+    }
+
+    private static void assertMatches(String id, String question) {
+        FaqMatcher.Answer answer = matcher.match(question);
+        assertNotNull(question, answer);
+        assertEquals(question, id, answer.getId());
+        assertTrue(question, answer.getConfidence() >= FaqMatcher.MIN_COVERAGE);
+        assertTrue(question, answer.getText().length() > 0);
+    }
+}